@@ -0,0 +1,56 @@
+package betting;
+
+/**
+ * Chips held by one player, counted in half betting units.
+ *
+ * Halves are the smallest amount a 3:2 natural pays, so the balance is
+ * exact. Also tracks the peak balance and the deepest drop
+ * from a peak, which is what the bankroll simulator reports as drawdown.
+ */
+public final class Bankroll {
+
+    private final long initial;
+    private long balance;
+    private long peak;
+    private long maxDrawdown;
+
+    // initial is in whole units
+    public Bankroll(long initial) {
+        if (initial < 0) throw new IllegalArgumentException("Bankroll cannot be negative");
+        this.initial = initial * 2;
+        reset();
+    }
+
+    public void reset() {
+        balance = initial;
+        peak = initial;
+        maxDrawdown = 0;
+    }
+
+    public long balanceHalves()  { return balance; }
+    public double initial()      { return initial / 2.0; }
+    public double balance()      { return balance / 2.0; }
+    public double peak()         { return peak / 2.0; }
+    public double maxDrawdown()  { return maxDrawdown / 2.0; }
+
+    // Whole units that can still be staked
+    public long stakeable() {
+        return balance / 2;
+    }
+
+    // True once the player cannot cover the smallest allowed bet
+    public boolean isRuined(long minBet) {
+        return balance < 2 * minBet;
+    }
+
+    // Applies a settled round; netHalves is the change in half units (negative for a loss)
+    public void settle(long netHalves) {
+        balance += netHalves;
+        if (balance < 0) throw new IllegalStateException("Bankroll went negative: " + balance());
+        if (balance > peak) {
+            peak = balance;
+        } else if (peak - balance > maxDrawdown) {
+            maxDrawdown = peak - balance;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package betting;
+
+import java.util.stream.LongStream;
+
+import model.Card;
+import model.Deck;
+import model.TableRules;
+import sim.PlayerStrategy;
+import sim.RoundSimulator;
+
+/**
+ * Plays many independent bankroll trajectories in parallel.
+ *
+ * Each trajectory starts with a fresh bankroll and its own seeded shoe and
+ * plays until it has played the given number of rounds or can no longer
+ * cover the minimum bet (ruin). Nothing per trajectory is kept: the final
+ * balance, the deepest drawdown and the round of ruin go straight into
+ * QuantileSketches, one set per parallel chunk, merged at the end. Memory
+ * therefore does not depend on how many trajectories or rounds are run.
+ */
+public final class BankrollSimulator {
+
+    // Trajectories per parallel chunk (each chunk owns one set of sketches)
+    private static final int CHUNK = 256;
+
+    private final long initialBankroll;
+    private final long minBet;
+    private final long maxBet;
+    private final BetSizer sizer;
+    private final PayoutRules payouts;
+    private final PlayerStrategy strategy;
+    private final TableRules rules;
+
+    public BankrollSimulator(long initialBankroll, long minBet, long maxBet,
+                             BetSizer sizer, PayoutRules payouts, PlayerStrategy strategy) {
+        this(initialBankroll, minBet, maxBet, sizer, payouts, strategy, TableRules.HIT_STAND);
+    }
+
+    public BankrollSimulator(long initialBankroll, long minBet, long maxBet, BetSizer sizer,
+                             PayoutRules payouts, PlayerStrategy strategy, TableRules rules) {
+        if (minBet < 1 || maxBet < minBet) throw new IllegalArgumentException("Need 1 <= minBet <= maxBet");
+        if (initialBankroll < minBet) throw new IllegalArgumentException("Bankroll must cover the minimum bet");
+        if (sizer == null || payouts == null || strategy == null || rules == null) {
+            throw new IllegalArgumentException("Sizer/Payouts/Strategy/Rules cannot be null");
+        }
+        this.initialBankroll = initialBankroll;
+        this.minBet = minBet;
+        this.maxBet = maxBet;
+        this.sizer = sizer;
+        this.payouts = payouts;
+        this.strategy = strategy;
+        this.rules = rules;
+    }
+
+    /** Summary of a run; mergeable, so partial results can be combined. */
+    public static final class Result {
+        private final QuantileSketch finalBankroll = new QuantileSketch();
+        private final QuantileSketch maxDrawdown = new QuantileSketch();
+        private final QuantileSketch ruinRound = new QuantileSketch();
+        private long trajectories;
+        private long ruined;
+        private long rounds;
+
+        public QuantileSketch finalBankroll() { return finalBankroll; }
+        public QuantileSketch maxDrawdown()   { return maxDrawdown; }
+        // Round at which ruined trajectories went broke
+        public QuantileSketch ruinRound()     { return ruinRound; }
+        public long trajectories()            { return trajectories; }
+        public long ruined()                  { return ruined; }
+        public long rounds()                  { return rounds; }
+
+        public double riskOfRuin() {
+            return trajectories == 0 ? 0.0 : (double) ruined / trajectories;
+        }
+
+        public Result merge(Result other) {
+            finalBankroll.merge(other.finalBankroll);
+            maxDrawdown.merge(other.maxDrawdown);
+            ruinRound.merge(other.ruinRound);
+            trajectories += other.trajectories;
+            ruined += other.ruined;
+            rounds += other.rounds;
+            return this;
+        }
+    }
+
+    // Trajectory t always uses the same shoe seed, so a run is reproducible from its seed
+    public Result run(long trajectories, int roundsPerTrajectory, long seed) {
+        if (trajectories < 1 || roundsPerTrajectory < 1) {
+            throw new IllegalArgumentException("Trajectories and rounds must be positive");
+        }
+        long chunks = (trajectories + CHUNK - 1) / CHUNK;
+        return LongStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    Result r = new Result();
+                    long end = Math.min(trajectories, (c + 1) * CHUNK);
+                    for (long t = c * CHUNK; t < end; t++) {
+                        play(roundsPerTrajectory, seed ^ (0x9E3779B97F4A7C15L * (t + 1)), r);
+                    }
+                    return r;
+                })
+                .reduce(Result::merge)   // merge() mutates, so no shared identity value
+                .orElseGet(Result::new);
+    }
+
+    private void play(int rounds, long shoeSeed, Result out) {
+        Deck deck = new Deck(shoeSeed);
+        RoundSimulator sim = new RoundSimulator(deck, strategy, rules);
+        HiLoCounter counter = new HiLoCounter();
+        Bankroll bankroll = new Bankroll(initialBankroll);
+
+        int played = 0;
+        boolean ruined = false;
+        while (played < rounds) {
+            // The simulator reshuffles before dealing, which resets the count
+            if (deck.needsReshuffle()) counter.reset();
+
+            long wanted = sizer.bet(bankroll.stakeable(), counter.trueCount(deck.remaining()));
+            long bet = Math.max(minBet, Math.min(Math.min(maxBet, bankroll.stakeable()), wanted));
+
+            long reshuffles = deck.reshuffles();
+            sim.playRound();
+
+            // Doubles, splits and insurance are staked even when the balance cannot cover them;
+            // losing them empties the bankroll (ruin) instead of taking it below zero
+            bankroll.settle(Math.max(payouts.netHalves(bet, sim), -bankroll.balanceHalves()));
+            played++;
+
+            // A reshuffle during the round starts a new count. This round's cards stayed out of
+            // the new shoe, so all of them are counted after the reset.
+            if (deck.reshuffles() != reshuffles) counter.reset();
+            for (int i = 0; i < sim.playerCards(); i++) counter.see(value(sim.playerCardCode(i)));
+            for (int i = 0; i < sim.dealerCardCount(); i++) counter.see(value(sim.dealerCardCode(i)));
+
+            if (bankroll.isRuined(minBet)) {
+                ruined = true;
+                break;
+            }
+        }
+
+        out.trajectories++;
+        out.rounds += played;
+        out.finalBankroll.add(bankroll.balance());
+        out.maxDrawdown.add(bankroll.maxDrawdown());
+        if (ruined) {
+            out.ruined++;
+            out.ruinRound.add(played);
+        }
+    }
+
+    private static int value(int code) {
+        return Card.fromCode(code).baseValue();
+    }
+
+    // java betting.BankrollSimulator [trajectories] [rounds] [flat|prop|hilo] [bankroll] [seed] [hitstand|standard]
+    public static void main(String[] args) {
+        long trajectories = args.length > 0 ? Long.parseLong(args[0]) : 100_000L;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        String sizing = args.length > 2 ? args[2] : "flat";
+        long bankroll = args.length > 3 ? Long.parseLong(args[3]) : 100L;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+        boolean standard = args.length > 5 && args[5].equalsIgnoreCase("standard");
+
+        BetSizer sizer;
+        switch (sizing) {
+            case "prop": sizer = BetSizer.proportional(0.02); break;
+            case "hilo": sizer = BetSizer.hiLo(1, 8); break;
+            default:     sizer = BetSizer.flat(1); break;
+        }
+
+        // Standard rules are played with basic strategy, so doubles and splits actually happen
+        BankrollSimulator simulator = standard
+                ? new BankrollSimulator(bankroll, 1, 100, sizer, PayoutRules.THREE_TO_TWO,
+                        PlayerStrategy.basic(), TableRules.STANDARD)
+                : new BankrollSimulator(bankroll, 1, 100, sizer, PayoutRules.THREE_TO_TWO,
+                        PlayerStrategy.dealerRule());
+
+        long t0 = System.nanoTime();
+        Result r = simulator.run(trajectories, rounds, seed);
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+
+        System.out.printf("%d trajectories, %d rounds in %d ms (%s betting, bankroll %d, %s rules)%n",
+                r.trajectories(), r.rounds(), ms, sizing, bankroll, standard ? "standard" : "hit/stand");
+        System.out.printf("Risk of ruin: %.4f%n", r.riskOfRuin());
+        double[] qs = {0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99};
+        print("Final bankroll", r.finalBankroll(), qs);
+        print("Max drawdown", r.maxDrawdown(), qs);
+        if (r.ruined() > 0) print("Round of ruin", r.ruinRound(), qs);
+    }
+
+    private static void print(String label, QuantileSketch s, double[] qs) {
+        StringBuilder sb = new StringBuilder(String.format("%-15s mean %9.1f", label, s.mean()));
+        for (double q : qs) sb.append(String.format("  p%-2d %8.1f", Math.round(q * 100), s.quantile(q)));
+        System.out.println(sb);
+    }
+}
@@ -0,0 +1,64 @@
+package sim;
+
+/**
+ * Multi-deck basic strategy (dealer stands on soft 17, double after split).
+ *
+ * The usual chart, condensed to a few comparisons per decision. Upcards are
+ * values: 1 is an Ace, 10 any ten-valued card.
+ */
+final class BasicStrategy implements PlayerStrategy {
+
+    static final BasicStrategy INSTANCE = new BasicStrategy();
+
+    private BasicStrategy() {
+    }
+
+    @Override
+    public boolean shouldHit(int hardSum, int aceCount, int up) {
+        int total = RoundSimulator.bestTotal(hardSum, aceCount);
+        if (total != hardSum) {
+            // Soft hand
+            return total <= 17 || (total == 18 && (up >= 9 || up == 1));
+        }
+        if (total <= 11) return true;
+        if (total == 12) return up < 4 || up > 6;
+        if (total <= 16) return up >= 7 || up == 1;
+        return false;
+    }
+
+    @Override
+    public boolean shouldDouble(int hardSum, int aceCount, int up) {
+        int total = RoundSimulator.bestTotal(hardSum, aceCount);
+        if (total != hardSum) {
+            if (total <= 14) return up == 5 || up == 6;
+            if (total <= 16) return up >= 4 && up <= 6;
+            if (total <= 18) return up >= 3 && up <= 6;
+            return false;
+        }
+        if (total == 11) return up != 1;
+        if (total == 10) return up >= 2 && up <= 9;
+        if (total == 9) return up >= 3 && up <= 6;
+        return false;
+    }
+
+    @Override
+    public boolean shouldSplit(int pairValue, int up) {
+        switch (pairValue) {
+            case 1:
+            case 8:
+                return true;
+            case 9:
+                return up >= 2 && up <= 9 && up != 7;
+            case 2:
+            case 3:
+            case 7:
+                return up >= 2 && up <= 7;
+            case 6:
+                return up >= 2 && up <= 6;
+            case 4:
+                return up == 5 || up == 6;
+            default:
+                return false;   // 5s double as a 10, tens stand on 20
+        }
+    }
+}
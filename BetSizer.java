@@ -0,0 +1,39 @@
+package betting;
+
+/**
+ * Decides the stake of the next round.
+ *
+ * The result is always clamped by the caller to [minBet, balance]; a sizer
+ * only expresses how much it would like to bet.
+ */
+@FunctionalInterface
+public interface BetSizer {
+
+    long bet(long balance, double trueCount);
+
+    // Same stake every round
+    static BetSizer flat(long units) {
+        if (units < 1) throw new IllegalArgumentException("Bet must be at least 1 unit");
+        return (balance, count) -> units;
+    }
+
+    // A fixed share of the current balance (fractional Kelly style)
+    static BetSizer proportional(double fraction) {
+        if (!(fraction > 0.0 && fraction <= 1.0)) {
+            throw new IllegalArgumentException("Fraction must be in (0, 1]");
+        }
+        return (balance, count) -> (long) (balance * fraction);
+    }
+
+    /**
+     * Hi-Lo spread: one unit at a true count of +1 or less, then one more unit
+     * per true count point, up to maxUnits.
+     */
+    static BetSizer hiLo(long unit, int maxUnits) {
+        if (unit < 1 || maxUnits < 1) throw new IllegalArgumentException("Unit and spread must be positive");
+        return (balance, count) -> {
+            int units = (int) Math.floor(count);
+            return unit * Math.max(1, Math.min(maxUnits, units));
+        };
+    }
+}
@@ -13,6 +13,18 @@ public class Card {
         JACK, QUEEN, KING
     }
 
+    // One shared instance per rank/suit, indexed by code(); used by compact shoes
+    private static final Card[] BY_CODE = new Card[64];
+
+    static {
+        for (Suit s : Suit.values()) {
+            for (Rank r : Rank.values()) {
+                Card c = new Card(s, r);
+                BY_CODE[c.code()] = c;
+            }
+        }
+    }
+
     // Core attributes of a card
     private final Suit suit;
     private final Rank rank;
@@ -56,6 +68,18 @@ public class Card {
         return ability;
     }
 
+    // 6-bit code: rank ordinal in the high 4 bits, suit ordinal in the low 2 bits
+    public int code() {
+        return (rank.ordinal() << 2) | suit.ordinal();
+    }
+
+    // Shared plain card (no image/ability) for a code produced by code()
+    public static Card fromCode(int code) {
+        Card c = (code >= 0 && code < BY_CODE.length) ? BY_CODE[code] : null;
+        if (c == null) throw new IllegalArgumentException("Invalid card code: " + code);
+        return c;
+    }
+
     // Returns true if this card is an Ace
     public boolean isAce() {
         return rank == Rank.ACE;
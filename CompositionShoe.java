@@ -0,0 +1,301 @@
+package sim;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import model.Card;
+import model.Shoe;
+
+/**
+ * Shoe that remembers only how many cards of each kind are left, not their order.
+ *
+ * Counts live in an int[] indexed by rank (or by Card.code() when suits are
+ * tracked). A draw picks a card weighted by those counts through a Fenwick
+ * tree over the slots, so it costs a fixed 4 (ranks) or 6 (ranks and suits)
+ * steps whatever the number of decks, and removing the card is the same
+ * number of steps. There is nothing to shuffle: every draw is already a
+ * uniformly random card of what is left.
+ *
+ * In infinite mode draws never deplete the shoe; they come from a lookup
+ * table of one deck, one random number per card.
+ *
+ * Dealt cards handed to discard() wait in a tray of counts until the cut
+ * card (penetration) is reached and reshuffle() puts them back, the way
+ * Deck's CUT_CARD mode does, so RoundSimulator can play either shoe.
+ *
+ * compositionKey() packs the remaining count of every value (Ace..ten) into
+ * a long, maintained as cards leave, so probability caches can key on it.
+ */
+public final class CompositionShoe implements Shoe {
+
+    private static final int RANKS = Card.Rank.values().length;
+    private static final int SUITS = Card.Suit.values().length;
+
+    private final int numDecks;
+    private final boolean trackSuits;
+    private final boolean infinite;
+    private final long seed;
+    private final SplittableRandom rng;
+    private final int cutCard;    // number of dealt cards that triggers a reshuffle
+
+    // Slot = rank ordinal, or Card.code() when suits are tracked; size is a power of two
+    private final int slots;
+    private final int[] counts;
+    private final int[] tree;     // Fenwick tree over counts, 1-based
+    private int remaining;
+
+    // Discard tray, by slot like counts
+    private final int[] discards;
+    private int discardCount;
+
+    // Infinite mode: one deck's slots, drawn uniformly
+    private final byte[] oneDeck;
+
+    // Bit offset of each value's count in the composition key (-1 if the key does not fit a long)
+    private final int[] keyShift = new int[11];
+    private long key;
+
+    public CompositionShoe(int numDecks, long seed) {
+        this(numDecks, false, false, seed);
+    }
+
+    public CompositionShoe(int numDecks, boolean trackSuits, boolean infinite, long seed) {
+        this(numDecks, trackSuits, infinite, 1.0, seed);
+    }
+
+    public CompositionShoe(int numDecks, boolean trackSuits, boolean infinite, double penetration, long seed) {
+        if (numDecks < 1) throw new IllegalArgumentException("Deck count must be at least 1");
+        if (!(penetration > 0.0 && penetration <= 1.0)) {
+            throw new IllegalArgumentException("Penetration must be in (0, 1]");
+        }
+
+        this.numDecks = numDecks;
+        this.trackSuits = trackSuits;
+        this.infinite = infinite;
+        this.seed = seed;
+        this.rng = new SplittableRandom(seed);
+        this.cutCard = (int) Math.round(numDecks * RANKS * SUITS * penetration);
+        this.slots = trackSuits ? 64 : 16;
+        this.counts = new int[slots];
+        this.tree = new int[slots + 1];
+        this.discards = new int[slots];
+
+        oneDeck = new byte[trackSuits ? RANKS * SUITS : RANKS];
+        int i = 0;
+        for (Card.Rank r : Card.Rank.values()) {
+            if (trackSuits) {
+                for (Card.Suit s : Card.Suit.values()) oneDeck[i++] = (byte) (r.ordinal() << 2 | s.ordinal());
+            } else {
+                oneDeck[i++] = (byte) r.ordinal();
+            }
+        }
+
+        int shift = 0;
+        for (int v = 1; v <= 10; v++) {
+            keyShift[v] = shift;
+            shift += 32 - Integer.numberOfLeadingZeros(fullCount(numDecks, v));
+        }
+        if (shift > 63) Arrays.fill(keyShift, -1);
+
+        reset();
+    }
+
+    public int numDecks()        { return numDecks; }
+    public boolean trackSuits()  { return trackSuits; }
+    public boolean infinite()    { return infinite; }
+
+    // -------- Shoe --------
+
+    @Override
+    public void reset() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(discards, 0);
+        discardCount = 0;
+        int perSlot = trackSuits ? numDecks : numDecks * SUITS;
+        for (byte slot : oneDeck) counts[slot] = perSlot;
+        rebuildTree();
+        remaining = numDecks * RANKS * SUITS;
+
+        key = 0;
+        if (keyShift[1] >= 0) {
+            for (int v = 1; v <= 10; v++) key |= (long) fullCount(numDecks, v) << keyShift[v];
+        }
+    }
+
+    // Nothing to do: draws are random by construction
+    @Override
+    public void shuffle() {
+    }
+
+    @Override
+    public int remaining() {
+        return remaining;
+    }
+
+    @Override
+    public long seed() {
+        return seed;
+    }
+
+    // Infinite shoes never run low, so their cards are not kept
+    @Override
+    public void discard(Card card) {
+        if (card == null) throw new IllegalArgumentException("Card cannot be null");
+        if (infinite) return;
+        discards[slot(card)]++;
+        discardCount++;
+    }
+
+    // True once the cut card has come out (never in infinite mode)
+    @Override
+    public boolean needsReshuffle() {
+        return !infinite && numDecks * RANKS * SUITS - remaining >= cutCard;
+    }
+
+    // Moves the discard tray back into the shoe; cards still on the table stay out
+    @Override
+    public void reshuffle() {
+        for (int slot = 0; slot < slots; slot++) {
+            int n = discards[slot];
+            if (n == 0) continue;
+            counts[slot] += n;
+            if (keyShift[1] >= 0) key += (long) n << keyShift[value(slot)];
+            discards[slot] = 0;
+        }
+        remaining += discardCount;
+        discardCount = 0;
+        rebuildTree();
+    }
+
+    public int discarded() {
+        return discardCount;
+    }
+
+    @Override
+    public Card draw() {
+        return Card.fromCode(drawCode());
+    }
+
+    // Draws a card weighted by what is left and returns its Card.code()
+    public int drawCode() {
+        if (remaining == 0) throw new IllegalStateException("Deck is empty");
+        if (trackSuits) {
+            if (infinite) return oneDeck[rng.nextInt(oneDeck.length)];
+            int slot = find(rng.nextInt(remaining));
+            take(slot);
+            return slot;
+        }
+        // One random number covers both the rank and a uniform suit (its low two bits)
+        int r = rng.nextInt(infinite ? RANKS * SUITS : remaining * SUITS);
+        int slot = infinite ? oneDeck[r >> 2] : find(r >> 2);
+        if (!infinite) take(slot);
+        return slot << 2 | (r & 3);
+    }
+
+    // -------- Composition --------
+
+    /**
+     * Takes a known card out of the shoe (a card seen on the table); no-op
+     * in infinite mode. Throws IllegalStateException if none is left.
+     */
+    public void remove(Card card) {
+        if (card == null) throw new IllegalArgumentException("Card cannot be null");
+        if (infinite) return;
+        int slot = slot(card);
+        if (counts[slot] == 0) throw new IllegalStateException("No " + card + " left in the shoe");
+        take(slot);
+    }
+
+    // Remaining cards of a value (1 = Ace .. 10 = ten-valued)
+    public int count(int value) {
+        if (value < 1 || value > 10) throw new IllegalArgumentException("Value must be in 1..10");
+        int n = 0;
+        for (byte slot : oneDeck) {
+            if (value(slot) == value) n += counts[slot];
+        }
+        return n;
+    }
+
+    // Chance that the next card has this value
+    public double probability(int value) {
+        return remaining == 0 ? 0.0 : (double) count(value) / remaining;
+    }
+
+    // Fills target[1..10] with the remaining count of each value (TableState.of takes this layout)
+    public int[] valueCounts(int[] target) {
+        if (target == null || target.length < 11) throw new IllegalArgumentException("Counts must be indexed by value 1..10");
+        Arrays.fill(target, 0, 11, 0);
+        for (byte slot : oneDeck) target[value(slot)] += counts[slot];
+        return target;
+    }
+
+    /**
+     * Exact key of the remaining composition by value; suits do not matter,
+     * so a rank shoe and a suited shoe with the same cards share a key.
+     * Fits a long up to 15 decks; larger shoes throw IllegalStateException.
+     */
+    public long compositionKey() {
+        if (keyShift[1] < 0) throw new IllegalStateException("Composition key needs at most 15 decks");
+        return key;
+    }
+
+    // Key of an arbitrary composition (counts indexed by value), matching compositionKey()
+    public static long compositionKey(int numDecks, int[] valueCounts) {
+        long k = 0;
+        int shift = 0;
+        for (int v = 1; v <= 10; v++) {
+            int max = fullCount(numDecks, v);
+            if (valueCounts[v] < 0 || valueCounts[v] > max) {
+                throw new IllegalArgumentException("Count of value " + v + " out of range: " + valueCounts[v]);
+            }
+            k |= (long) valueCounts[v] << shift;
+            shift += 32 - Integer.numberOfLeadingZeros(max);
+        }
+        if (shift > 63) throw new IllegalStateException("Composition key needs at most 15 decks");
+        return k;
+    }
+
+    // -------- Internals --------
+
+    private static int fullCount(int numDecks, int value) {
+        return numDecks * SUITS * (value == 10 ? 4 : 1);
+    }
+
+    private int slot(Card card) {
+        return trackSuits ? card.code() : card.rank().ordinal();
+    }
+
+    private int value(int slot) {
+        int rank = trackSuits ? slot >> 2 : slot;
+        return Math.min(rank + 1, 10);
+    }
+
+    private void take(int slot) {
+        counts[slot]--;
+        remaining--;
+        for (int i = slot + 1; i <= slots; i += i & -i) tree[i]--;
+        if (keyShift[1] >= 0) key -= 1L << keyShift[value(slot)];
+    }
+
+    // Slot holding the r-th remaining card (0-based), by descending the tree
+    private int find(int r) {
+        // tree[slots] is the total, always > r, so the descent starts one level down
+        int pos = 0;
+        for (int step = slots >> 1; step > 0; step >>= 1) {
+            int below = tree[pos + step];
+            int mask = (below - r - 1) >> 31;   // -1 when below <= r; no branch to mispredict
+            pos += step & mask;
+            r -= below & mask;
+        }
+        return pos;
+    }
+
+    private void rebuildTree() {
+        Arrays.fill(tree, 0);
+        for (int i = 1; i <= slots; i++) {
+            tree[i] += counts[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= slots) tree[parent] += tree[i];
+        }
+    }
+}
@@ -2,17 +2,25 @@ package model;
 
 public class ComputerPlayer extends Player {
 
+    // H17 tables: the dealer also hits a soft 17
+    private final boolean hitsSoft17;
+
     public ComputerPlayer(String name) {
+        this(name, false);
+    }
+
+    public ComputerPlayer(String name, boolean hitsSoft17) {
         super(name);
+        this.hitsSoft17 = hitsSoft17;
     }
 
     /**
      * Standard Blackjack dealer rule:
      * - Hit if total < 17
-     * - Stand if total >= 17
+     * - Stand if total >= 17 (on an H17 table, hit a soft 17 too)
      */
     public boolean shouldHit() {
-        return bestTotal() < 17;
+        return bestTotal() < 17 || (hitsSoft17 && isSoft17());
     }
 
     @Override
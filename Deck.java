@@ -1,43 +1,349 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public class Deck {
-    private static final int NUM_DECKS = 4;
+public class Deck implements Shoe {
+    public static final int NUM_DECKS = 4;
 
-    private final List<Card> cards = new ArrayList<>();
+    // Default cut card position: reshuffle once 75% of the shoe has been dealt
+    public static final double DEFAULT_PENETRATION = 0.75;
+
+    /**
+     * CUT_CARD:   used cards go to a discard tray; once the cut card is reached
+     *             the tray is shuffled back into the shoe between rounds.
+     * CONTINUOUS: used cards go straight back into the shoe at a random
+     *             position (continuous shuffling machine), so it never runs out.
+     */
+    public enum ShuffleMode {
+        CUT_CARD, CONTINUOUS
+    }
+
+    // Every card of the shoe, created once and recycled for the life of the deck
+    private final Card[] allCards;
+
+    // Cards still in the shoe are shoe[0 .. size); draws come off the top (size - 1)
+    private Card[] shoe;
+    private int size;
+
+    // Second shoe array; a prepared shuffle is gathered into it and the two are swapped
+    private Card[] spare;
+
+    // Discard tray (CUT_CARD mode only)
+    private final Card[] discards;
+    private int discardCount;
+    private long reshuffles;
+
+    private final ShuffleMode mode;
+    private final int cutCard;   // number of dealt cards that triggers a reshuffle
+
+    // Seeded RNG so a shoe (and a whole simulation) can be replayed from its seed
+    private final long seed;
+    private final ShoeRandom rng;
+
+    /**
+     * A full-shoe shuffle computed ahead of time on a helper thread. A
+     * Fisher-Yates shuffle of n cards only depends on n and the RNG, so the
+     * helper shuffles the positions 0..n-1 with a copy of the RNG; the deck
+     * then just gathers its cards in that order and jumps its RNG to where the
+     * shuffle would have left it. The result is identical to shuffling here.
+     */
+    private static final class PreparedShuffle {
+        final long fromState;
+        final long toState;
+        final int[] order;
+
+        PreparedShuffle(long fromState, long toState, int[] order) {
+            this.fromState = fromState;
+            this.toState = toState;
+            this.order = order;
+        }
+    }
+
+    // Shuffles prepared per refill; refills are requested when half are used up
+    private static final int PREPARED_AHEAD = 8;
+
+    // One daemon thread prepares shuffles for every deck
+    private static final ExecutorService SHUFFLER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "shoe-shuffle");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Consecutive prepared shuffles: each one starts from the RNG state the previous one ends in
+    private final ConcurrentLinkedDeque<PreparedShuffle> prepared = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private volatile int preparedGeneration;   // bumped when prepared shuffles no longer apply
+    private boolean backgroundShuffle;
 
     public Deck() {
-        reset();
-        shuffle();
+        this(new Random().nextLong());
     }
 
-    public void reset() {
-        cards.clear();
+    public Deck(long seed) {
+        this(NUM_DECKS, ShuffleMode.CUT_CARD, DEFAULT_PENETRATION, seed);
+    }
 
-        for (int d = 0; d < NUM_DECKS; d++) {          // 🔥 4 deste
+    public Deck(int numDecks, ShuffleMode mode, double penetration, long seed) {
+        if (numDecks < 1) {
+            throw new IllegalArgumentException("Deck count must be at least 1");
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("Shuffle mode cannot be null");
+        }
+        if (!(penetration > 0.0 && penetration <= 1.0)) {
+            throw new IllegalArgumentException("Penetration must be in (0, 1]");
+        }
+
+        int total = numDecks * Card.Suit.values().length * Card.Rank.values().length;
+        this.allCards = new Card[total];
+        this.shoe = new Card[total];
+        this.discards = new Card[total];
+        this.mode = mode;
+        this.cutCard = (int) Math.round(total * penetration);
+        this.seed = seed;
+        this.rng = new ShoeRandom(seed);
+
+        int i = 0;
+        for (int d = 0; d < numDecks; d++) {          // 🔥 4 deste
             for (Card.Suit s : Card.Suit.values()) {
                 for (Card.Rank r : Card.Rank.values()) {
-                    cards.add(new Card(s, r));
+                    allCards[i++] = new Card(s, r);
                 }
             }
         }
+
+        reset();
+        shuffle();
+    }
+
+    @Override
+    public long seed() {
+        return seed;
+    }
+
+    public ShuffleMode mode() {
+        return mode;
     }
 
+    public int totalCards() {
+        return allCards.length;
+    }
+
+    // Puts every card back into the shoe (unshuffled). Cards are reused, not recreated.
+    @Override
+    public void reset() {
+        System.arraycopy(allCards, 0, shoe, 0, allCards.length);
+        size = allCards.length;
+        discardCount = 0;
+    }
+
+    // Shuffles the cards currently in the shoe
+    @Override
     public void shuffle() {
-        Collections.shuffle(cards);
+        PreparedShuffle p = backgroundShuffle ? prepared.pollFirst() : null;
+        if (p != null && p.order.length == size && p.fromState == rng.state()) {
+            int[] order = p.order;
+            for (int i = 0; i < size; i++) spare[i] = shoe[order[i]];
+            Card[] tmp = shoe;
+            shoe = spare;
+            spare = tmp;
+            rng.restore(p.toState);
+        } else {
+            // Partial shoe or the helper fell behind: the prepared chain no longer applies
+            if (p != null) discardPrepared();
+
+            // Same swap sequence as Collections.shuffle(list, rng)
+            for (int i = size; i > 1; i--) {
+                int j = rng.nextInt(i);
+                Card tmp = shoe[i - 1];
+                shoe[i - 1] = shoe[j];
+                shoe[j] = tmp;
+            }
+        }
+        if (backgroundShuffle && prepared.size() <= PREPARED_AHEAD / 2) requestShuffles();
+    }
+
+    /**
+     * Prepares full-shoe shuffles ahead of time on a helper thread, so a
+     * reshuffle (between rounds, or on the EDT) is one pass over the cards
+     * and the helper is only woken every few shuffles. Only CUT_CARD shoes: a
+     * continuous shuffler uses the RNG on every discard, so its state at the
+     * next shuffle is not known in advance. Deals are identical either way.
+     */
+    public void setBackgroundShuffle(boolean on) {
+        backgroundShuffle = on && mode == ShuffleMode.CUT_CARD;
+        discardPrepared();
+        if (backgroundShuffle) {
+            if (spare == null) spare = new Card[shoe.length];
+            requestShuffles();
+        }
+    }
+
+    public boolean backgroundShuffle() {
+        return backgroundShuffle;
     }
 
+    private void discardPrepared() {
+        preparedGeneration++;
+        prepared.clear();
+    }
+
+    // Extends the chain from its last state (or the RNG's, if empty); one refill at a time
+    private void requestShuffles() {
+        if (!refilling.compareAndSet(false, true)) return;
+        PreparedShuffle last = prepared.peekLast();
+        long from = last != null ? last.toState : rng.state();
+        int generation = preparedGeneration;
+        int n = allCards.length;
+
+        SHUFFLER.execute(() -> {
+            try {
+                ShoeRandom r = new ShoeRandom(0);
+                r.restore(from);
+                for (int k = 0; k < PREPARED_AHEAD && generation == preparedGeneration; k++) {
+                    long start = r.state();
+                    int[] order = new int[n];
+                    for (int i = 0; i < n; i++) order[i] = i;
+                    for (int i = n; i > 1; i--) {
+                        int j = r.nextInt(i);
+                        int tmp = order[i - 1];
+                        order[i - 1] = order[j];
+                        order[j] = tmp;
+                    }
+                    prepared.addLast(new PreparedShuffle(start, r.state(), order));
+                }
+            } finally {
+                refilling.set(false);
+            }
+        });
+    }
+
+    @Override
     public int remaining() {
-        return cards.size();
+        return size;
     }
 
+    // Fills counts[v] with the number of cards of blackjack value v (1..10) still in the shoe
+    public void valueCounts(int[] counts) {
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < size; i++) counts[shoe[i].baseValue()]++;
+    }
+
+    // Writes Card.code() of every card in the shoe, bottom to top (the last one is drawn next)
+    public int copyCodes(byte[] out) {
+        for (int i = 0; i < size; i++) out[i] = (byte) shoe[i].code();
+        return size;
+    }
+
+    public int discarded() {
+        return discardCount;
+    }
+
+    @Override
     public Card draw() {
-        if (cards.isEmpty())
+        if (size == 0)
             throw new IllegalStateException("Deck is empty");
-        return cards.remove(cards.size() - 1);
+        return shoe[--size];
+    }
+
+    // Returns a used card to the table: discard tray, or straight back into the shoe
+    @Override
+    public void discard(Card c) {
+        if (c == null) throw new IllegalArgumentException("Card cannot be null");
+
+        if (mode == ShuffleMode.CONTINUOUS) {
+            if (size == shoe.length) throw new IllegalStateException("Shoe is full");
+            // Insert at a uniformly random position in O(1): append, then swap with a random slot
+            int j = rng.nextInt(size + 1);
+            shoe[size] = shoe[j];
+            shoe[j] = c;
+            size++;
+        } else {
+            if (discardCount == discards.length) throw new IllegalStateException("Discard tray is full");
+            discards[discardCount++] = c;
+        }
     }
-}
 
+    public void discardAll(List<Card> cards) {
+        for (int i = 0; i < cards.size(); i++) discard(cards.get(i));
+    }
+
+    // -------- Checkpointing --------
+
+    /**
+     * Writes the shoe order, the discard tray and the RNG state, so that a deck
+     * built with the same settings and restored with readState() deals and
+     * shuffles exactly like this one from here on.
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(allCards.length);
+        out.writeLong(rng.state());
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) out.writeByte(shoe[i].code());
+        out.writeInt(discardCount);
+        for (int i = 0; i < discardCount; i++) out.writeByte(discards[i].code());
+    }
+
+    public void readState(DataInput in) throws IOException {
+        if (in.readInt() != allCards.length) throw new IOException("Saved deck has a different size");
+        long state = in.readLong();
+
+        // Cards with the same code are interchangeable; hand out this deck's own instances
+        Card[][] byCode = new Card[64][];
+        int[] available = new int[64];
+        for (Card c : allCards) available[c.code()]++;
+        for (int code = 0; code < 64; code++) byCode[code] = new Card[available[code]];
+        for (Card c : allCards) byCode[c.code()][--available[c.code()]] = c;
+        for (int code = 0; code < 64; code++) available[code] = byCode[code].length;
+
+        int newSize = in.readInt();
+        if (newSize < 0 || newSize > shoe.length) throw new IOException("Bad shoe size " + newSize);
+        for (int i = 0; i < newSize; i++) shoe[i] = take(byCode, available, in.readByte());
+        int newDiscards = in.readInt();
+        if (newDiscards < 0 || newSize + newDiscards > shoe.length) throw new IOException("Bad discard count");
+        for (int i = 0; i < newDiscards; i++) discards[i] = take(byCode, available, in.readByte());
+
+        size = newSize;
+        discardCount = newDiscards;
+        rng.restore(state);
+        if (backgroundShuffle) {
+            discardPrepared();
+            requestShuffles();
+        }
+    }
+
+    private static Card take(Card[][] byCode, int[] available, int code) throws IOException {
+        if (code < 0 || code >= 64 || available[code] == 0) throw new IOException("Unexpected card code " + code);
+        return byCode[code][--available[code]];
+    }
+
+    // True once the cut card has come out (never in CONTINUOUS mode)
+    @Override
+    public boolean needsReshuffle() {
+        return mode == ShuffleMode.CUT_CARD && allCards.length - size >= cutCard;
+    }
+
+    // Moves the discard tray back into the shoe and shuffles it
+    @Override
+    public void reshuffle() {
+        System.arraycopy(discards, 0, shoe, size, discardCount);
+        size += discardCount;
+        discardCount = 0;
+        reshuffles++;
+        shuffle();
+    }
+
+    // Times reshuffle() has run; lets a card counter notice reshuffles made in the middle of a round
+    public long reshuffles() {
+        return reshuffles;
+    }
+}
@@ -0,0 +1,166 @@
+package sim;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the experiments of a spec on a work-stealing pool, with a result cache.
+ *
+ * Each experiment not found in the cache becomes one fork/join task that
+ * splits its seed range in halves down to about LEAF_ROUNDS rounds, so a
+ * huge experiment spreads over every core while small ones fill the gaps.
+ * A finished experiment is stored in the cache and reported to the listener
+ * immediately; cached experiments are reported before any work starts.
+ */
+public final class ExperimentRunner {
+
+    // Rounds played by one leaf task
+    private static final long LEAF_ROUNDS = 1L << 18;
+
+    /** Called from pool threads as experiments finish (in completion order). */
+    @FunctionalInterface
+    public interface Listener {
+        void finished(int index, ExperimentSpec.Experiment experiment, SimulationStats stats, boolean cached);
+    }
+
+    private final ResultCache cache;
+    private final ForkJoinPool pool;
+
+    private final AtomicLong roundsDone = new AtomicLong();
+    private volatile long roundsTotal;
+
+    public ExperimentRunner(ResultCache cache, ForkJoinPool pool) {
+        if (cache == null || pool == null) throw new IllegalArgumentException("Cache/Pool cannot be null");
+        this.cache = cache;
+        this.pool = pool;
+    }
+
+    // Progress of the current run: rounds simulated so far / rounds that were not cached
+    public long roundsDone()  { return roundsDone.get(); }
+    public long roundsTotal() { return roundsTotal; }
+
+    /** Returns the stats of every experiment, in spec order. */
+    public List<SimulationStats> run(List<ExperimentSpec.Experiment> experiments, Listener listener) {
+        int n = experiments.size();
+        SimulationStats[] results = new SimulationStats[n];
+        String[] keys = new String[n];
+        roundsDone.set(0);
+
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            ExperimentSpec.Experiment e = experiments.get(i);
+            keys[i] = ResultCache.key(e.config(), e.firstSeed(), e.seedCount());
+            results[i] = cache.get(keys[i]);
+            if (results[i] != null) {
+                listener.finished(i, e, results[i], true);
+            } else {
+                total += e.seedCount() * e.config().roundsPerSeed();
+            }
+        }
+        roundsTotal = total;
+
+        List<ForkJoinTask<SimulationStats>> tasks = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (results[i] != null) continue;
+            int index = i;
+            ExperimentSpec.Experiment e = experiments.get(i);
+            tasks.add(pool.submit(ForkJoinTask.adapt(() -> {
+                SimulationStats stats = new SeedRange(e.config(), e.firstSeed(),
+                        e.firstSeed() + e.seedCount()).invoke();
+                try {
+                    cache.put(keys[index], stats);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                results[index] = stats;
+                listener.finished(index, e, stats, false);
+                return stats;
+            })));
+        }
+        for (ForkJoinTask<SimulationStats> t : tasks) t.join();
+        return List.of(results);
+    }
+
+    private final class SeedRange extends RecursiveTask<SimulationStats> {
+
+        private final SimulationConfig config;
+        private final long from;
+        private final long to;
+
+        SeedRange(SimulationConfig config, long from, long to) {
+            this.config = config;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from <= 1 || (to - from) * config.roundsPerSeed() <= LEAF_ROUNDS) {
+                SimulationStats stats = new SimulationStats();
+                config.playSeeds(from, to, stats);
+                roundsDone.addAndGet((to - from) * config.roundsPerSeed());
+                return stats;
+            }
+            long mid = from + (to - from) / 2;
+            SeedRange right = new SeedRange(config, mid, to);
+            right.fork();
+            SimulationStats left = new SeedRange(config, from, mid).compute();
+            left.merge(right.join());
+            return left;
+        }
+    }
+
+    // java sim.ExperimentRunner specFile [cacheDir]
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java sim.ExperimentRunner specFile [cacheDir]");
+            System.exit(2);
+        }
+        ExperimentSpec spec = ExperimentSpec.read(Paths.get(args[0]));
+        Path cacheDir = Paths.get(args.length > 1 ? args[1] : ".bjcache");
+        List<ExperimentSpec.Experiment> experiments = spec.experiments();
+
+        ExperimentRunner runner = new ExperimentRunner(new ResultCache(cacheDir), ForkJoinPool.commonPool());
+        AtomicLong finished = new AtomicLong();
+        AtomicLong hits = new AtomicLong();
+
+        Thread progress = new Thread(() -> {
+            try {
+                while (true) {
+                    Thread.sleep(1000);
+                    long total = runner.roundsTotal();
+                    if (total > 0) {
+                        System.out.printf("... %d/%d experiments, %.1f%% of %d rounds%n", finished.get(),
+                                experiments.size(), 100.0 * runner.roundsDone() / total, total);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // run finished
+            }
+        }, "experiment-progress");
+        progress.setDaemon(true);
+
+        long t0 = System.nanoTime();
+        progress.start();
+        List<SimulationStats> results = runner.run(experiments, (i, e, stats, cached) -> {
+            finished.incrementAndGet();
+            if (cached) hits.incrementAndGet();
+            System.out.printf("[%s] %s: %s%n", cached ? "cached" : "done", e.name(), stats);
+        });
+        progress.interrupt();
+
+        System.out.printf("%n%d experiments (%d from cache) in %d ms%n", experiments.size(), hits.get(),
+                (System.nanoTime() - t0) / 1_000_000);
+        for (int i = 0; i < experiments.size(); i++) {
+            System.out.printf("%+.5f  %s%n", results.get(i).expectedScore(), experiments.get(i).name());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package sim;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Deck;
+
+/**
+ * List of experiments read from a small text file.
+ *
+ * One directive per line, '#' starts a comment:
+ *
+ *   defaults decks=4 mode=cut penetration=0.75 standOn=17 rounds=10 dealer=s17 seeds=100000 seed=0
+ *   run name=baseline
+ *   run name=h17 dealer=h17 decks=6
+ *   grid decks=1,2,4,6,8 standOn=12..18 dealer=s17,h17
+ *
+ * "defaults" changes the values used by the lines after it, "run" adds one
+ * experiment and "grid" adds every combination of the listed values (a..b
+ * is an inclusive integer range). Keys: decks, mode (cut | csm for a
+ * Deck, composition | infinite for a CompositionShoe), penetration,
+ * standOn, rounds (per seed), dealer (s17 | h17), seeds (how many), seed
+ * (first seed) and name.
+ */
+public final class ExperimentSpec {
+
+    /** One configuration to simulate over seeds [firstSeed, firstSeed + seedCount). */
+    public static final class Experiment {
+        private final String name;
+        private final SimulationConfig config;
+        private final long firstSeed;
+        private final long seedCount;
+
+        public Experiment(String name, SimulationConfig config, long firstSeed, long seedCount) {
+            if (config == null) throw new IllegalArgumentException("Config cannot be null");
+            if (seedCount < 1) throw new IllegalArgumentException("Seed count must be positive");
+            this.name = (name == null || name.isEmpty()) ? config.toString() : name;
+            this.config = config;
+            this.firstSeed = firstSeed;
+            this.seedCount = seedCount;
+        }
+
+        public String name()             { return name; }
+        public SimulationConfig config() { return config; }
+        public long firstSeed()          { return firstSeed; }
+        public long seedCount()          { return seedCount; }
+    }
+
+    private final List<Experiment> experiments;
+
+    private ExperimentSpec(List<Experiment> experiments) {
+        this.experiments = List.copyOf(experiments);
+    }
+
+    public List<Experiment> experiments() {
+        return experiments;
+    }
+
+    public static ExperimentSpec read(Path file) throws IOException {
+        return parse(Files.readAllLines(file));
+    }
+
+    public static ExperimentSpec parse(List<String> lines) {
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("decks", String.valueOf(Deck.NUM_DECKS));
+        defaults.put("mode", "cut");
+        defaults.put("penetration", String.valueOf(Deck.DEFAULT_PENETRATION));
+        defaults.put("standOn", "17");
+        defaults.put("rounds", String.valueOf(SimulationConfig.defaults().roundsPerSeed()));
+        defaults.put("dealer", "s17");
+        defaults.put("seeds", "100000");
+        defaults.put("seed", "0");
+
+        List<Experiment> out = new ArrayList<>();
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n);
+            int hash = line.indexOf('#');
+            if (hash >= 0) line = line.substring(0, hash);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            String[] parts = line.split("\\s+");
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 1; i < parts.length; i++) {
+                int eq = parts[i].indexOf('=');
+                if (eq <= 0) throw error(n, "expected key=value, got '" + parts[i] + "'");
+                String key = parts[i].substring(0, eq);
+                if (!key.equals("name") && !defaults.containsKey(key)) throw error(n, "unknown key '" + key + "'");
+                values.put(key, parts[i].substring(eq + 1));
+            }
+
+            try {
+                switch (parts[0]) {
+                    case "defaults":
+                        values.remove("name");
+                        defaults.putAll(values);
+                        break;
+                    case "run": {
+                        Map<String, String> v = new LinkedHashMap<>(defaults);
+                        v.putAll(values);
+                        out.add(experiment(v));
+                        break;
+                    }
+                    case "grid":
+                        if (values.containsKey("name")) throw error(n, "grid lines cannot be named");
+                        expand(defaults, new ArrayList<>(values.entrySet()), 0, out);
+                        break;
+                    default:
+                        throw error(n, "unknown directive '" + parts[0] + "'");
+                }
+            } catch (IllegalArgumentException e) {
+                if (e.getMessage() != null && e.getMessage().startsWith("Line ")) throw e;
+                throw error(n, e.getMessage());
+            }
+        }
+        return new ExperimentSpec(out);
+    }
+
+    // Depth-first over the grid keys, so experiments come out in a stable order
+    private static void expand(Map<String, String> base, List<Map.Entry<String, String>> keys, int k,
+                               List<Experiment> out) {
+        if (k == keys.size()) {
+            out.add(experiment(base));
+            return;
+        }
+        String key = keys.get(k).getKey();
+        for (String value : values(keys.get(k).getValue())) {
+            Map<String, String> v = new LinkedHashMap<>(base);
+            v.put(key, value);
+            expand(v, keys, k + 1, out);
+        }
+    }
+
+    // "a,b,c" or "lo..hi"
+    private static List<String> values(String spec) {
+        List<String> out = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            int dots = part.indexOf("..");
+            if (dots > 0) {
+                int lo = Integer.parseInt(part.substring(0, dots));
+                int hi = Integer.parseInt(part.substring(dots + 2));
+                for (int i = lo; i <= hi; i++) out.add(String.valueOf(i));
+            } else {
+                out.add(part);
+            }
+        }
+        return out;
+    }
+
+    private static Experiment experiment(Map<String, String> v) {
+        Deck.ShuffleMode mode = Deck.ShuffleMode.CUT_CARD;
+        SimulationConfig.ShoeKind shoe = SimulationConfig.ShoeKind.DECK;
+        switch (v.get("mode")) {
+            case "cut": break;
+            case "csm": mode = Deck.ShuffleMode.CONTINUOUS; break;
+            case "composition": shoe = SimulationConfig.ShoeKind.COMPOSITION; break;
+            case "infinite": shoe = SimulationConfig.ShoeKind.INFINITE; break;
+            default: throw new IllegalArgumentException("mode must be cut, csm, composition or infinite");
+        }
+        boolean h17;
+        switch (v.get("dealer")) {
+            case "s17": h17 = false; break;
+            case "h17": h17 = true; break;
+            default: throw new IllegalArgumentException("dealer must be s17 or h17");
+        }
+
+        SimulationConfig config = new SimulationConfig(
+                Integer.parseInt(v.get("decks")), mode, Double.parseDouble(v.get("penetration")),
+                Integer.parseInt(v.get("standOn")), Integer.parseInt(v.get("rounds")), h17, shoe);
+        return new Experiment(v.get("name"), config,
+                Long.parseLong(v.get("seed")), Long.parseLong(v.get("seeds")));
+    }
+
+    private static IllegalArgumentException error(int line, String message) {
+        return new IllegalArgumentException("Line " + (line + 1) + ": " + message);
+    }
+}
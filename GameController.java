@@ -2,6 +2,7 @@ package controller;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import java.awt.CardLayout;
 import java.awt.EventQueue;
@@ -10,6 +11,9 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -18,30 +22,76 @@ import java.util.List;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 
-import model.Card;
+import controller.StageProfiler.Stage;
+import event.GameEvent;
+import event.GameEventBus;
+import event.GameEventConsumer;
+import event.GameMetrics;
+import event.QueuedConsumer;
+import history.SessionRecorder;
+import history.SessionReplay;
+
 import model.Deck;
+import model.HandArena;
 import model.HumanPlayer;
 import model.ComputerPlayer;
+import model.TableRules;
+import sim.RoundHistory;
 import ui.MenuPanel;
 import ui.GamePanel;
 import ui.GameOverPanel;
+import ui.ReplayPlayer;
+import ui.SimulationPanel;
 
 public class GameController {
 
     public static final int MAX_ROUNDS = 10;
 
-    private final Deck deck = new Deck();
-    private final HumanPlayer human = new HumanPlayer("Player");
-    private final ComputerPlayer computer = new ComputerPlayer("Dealer");
+    // Hit and stand plus doubling, splitting and insurance; the dealer stands on soft 17
+    private static final TableRules RULES = TableRules.STANDARD;
+
+    // Rounds, scores and the shoe; the controller only adds the window, timers and events
+    private final TableRound round = new TableRound(RULES, new Deck(), "Player", new TableRound.Listener() {
+        @Override
+        public void event(GameEvent.Type type, int seat, int cardCode) {
+            emit(type, seat, cardCode);
+        }
+
+        @Override
+        public void changed() {
+            publish();
+        }
+
+        @Override
+        public void dealerTurn() {
+            startDealerTurnWithTimer();
+        }
 
-    private int roundNumber;
-    private boolean playerTurn;
-    private boolean roundOver;
-    private boolean hideDealerFirstCard;
+        @Override
+        public void roundStarting() {
+            announceRound();
+        }
+
+        @Override
+        public void handSettled(int hand, byte outcome) {
+            recordRound(hand, outcome);
+        }
+
+        @Override
+        public void roundSettled() {
+            finishRound();
+        }
+    });
+
+    // Every settled round of this session, kept as primitive columns for analytics
+    private final RoundHistory history = new RoundHistory();
+
+    // Latest published table state; rebuilt once per state transition
+    private volatile TableSnapshot snapshot;
 
-    private String lastRoundSummary = "";
     private String finalSummary = "";
 
     private JFrame frame;
@@ -51,6 +101,20 @@ public class GameController {
     private MenuPanel menuPanel;
     private GamePanel gamePanel;
     private GameOverPanel gameOverPanel;
+    private SimulationPanel simulationPanel;
+
+    // Table events for the UI, metrics and the high-score writer; never blocks the game
+    private final GameEventBus events = new GameEventBus(1024);
+    private final GameMetrics metrics = new GameMetrics();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final List<QueuedConsumer> persistence = new ArrayList<>();
+
+    // Every game is recorded here so it can be replayed from the menu
+    private static final Path SESSION_FILE = Paths.get("last_session.bjr");
+    private final SessionRecorder recorder =
+            new SessionRecorder(SESSION_FILE, SessionRecorder.DEFAULT_KEYFRAME_INTERVAL);
+    private final byte[] shoeCodes = new byte[GameEvent.MAX_CARDS];
+    private ReplayPlayer replayPlayer;
 
     private Timer dealerTimer;
     private Timer nextRoundTimer;
@@ -60,21 +124,30 @@ public class GameController {
     }
 
     public void start() {
+        // Reshuffles happen on the EDT; have the next shuffle ready before it is needed
+        round.deck().setBackgroundShuffle(true);
+
         frame = new JFrame("Simplified Blackjack");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
         layout = new CardLayout();
         root = new JPanel(layout);
 
+        snapshot = round.snapshot();
+
         menuPanel = new MenuPanel(this);
         menuPanel.updateHighScoresText(highScoresText());
 
         gamePanel = new GamePanel(this);
         gameOverPanel = new GameOverPanel(this);
+        simulationPanel = new SimulationPanel(this);
+
+        startEventConsumers();
 
         root.add(menuPanel, "MENU");
         root.add(gamePanel, "GAME");
         root.add(gameOverPanel, "OVER");
+        root.add(simulationPanel, "SIM");
 
         frame.setContentPane(root);
         frame.setSize(900, 600);
@@ -84,21 +157,54 @@ public class GameController {
         showMenu();
     }
 
+    private void startEventConsumers() {
+        // UI: one repaint per batch of events, and at most one queued on the EDT at a time
+        events.addConsumer("ui", (e, seq, endOfBatch) -> {
+            if (endOfBatch && refreshPending.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(() -> {
+                    refreshPending.set(false);
+                    gamePanel.refresh();
+                });
+            }
+        });
+
+        events.addConsumer("metrics", metrics);
+
+        // Persistence must see every event: its disk I/O runs behind a queue, so a slow
+        // disk grows the queue instead of lapping the ring or holding up the EDT
+        addPersistenceConsumer("recorder", recorder);
+        addPersistenceConsumer("highscores", (e, seq, endOfBatch) -> {
+            if (e.type() != GameEvent.Type.GAME_ENDED) return;
+            saveHighScore(e.text(), e.playerScore(), LocalDate.now().toString());
+            String text = highScoresText();
+            SwingUtilities.invokeLater(() -> menuPanel.updateHighScoresText(text));
+        });
+    }
+
+    private void addPersistenceConsumer(String name, GameEventConsumer consumer) {
+        QueuedConsumer queued = new QueuedConsumer(name, StageProfiler.wrap(Stage.PERSIST, consumer));
+        persistence.add(queued);
+        events.addConsumer(name, queued);
+    }
+
     /* ================= MENU ================= */
 
     public void showMenu() {
         stopTimers();
+        stopReplay();
+        simulationPanel.stop();
         menuPanel.updateHighScoresText(highScoresText());
         layout.show(root, "MENU");
     }
 
     public void startNewGame() {
         stopTimers();
+        stopReplay();
 
         String name = JOptionPane.showInputDialog(
                 frame,
                 "Enter your name:",
-                human.name()
+                round.human().name()
         );
 
         if (name == null || name.trim().isEmpty()) {
@@ -106,15 +212,8 @@ public class GameController {
             return;
         }
 
-        human.setName(name.trim());
-
-        deck.reset();
-        deck.shuffle();
-
-        human.resetGameScore();
-        computer.resetGameScore();
-
-        roundNumber = 0;
+        round.human().setName(name.trim());
+        round.newGame(true);
         finalSummary = "";
 
         startNextRound();
@@ -125,65 +224,45 @@ public class GameController {
     private void startNextRound() {
         stopTimers();
 
-        if (roundNumber >= MAX_ROUNDS) {
+        if (round.roundNumber() >= MAX_ROUNDS) {
             endGame();
             return;
         }
 
-        roundNumber++;
-        roundOver = false;
-        playerTurn = true;
-        hideDealerFirstCard = true;
-        lastRoundSummary = "";
-
-        human.resetHand();
-        computer.resetHand();
-
-        dealInitialCards();
-
         layout.show(root, "GAME");
-        gamePanel.refresh();
-    }
-
-    private void dealInitialCards() {
-        ensureCardsAvailable(4);
-        human.addCard(deck.draw());
-        computer.addCard(deck.draw());
-        human.addCard(deck.draw());
-        computer.addCard(deck.draw());
+        round.startRound();
     }
 
-    private void ensureCardsAvailable(int needed) {
-        if (deck.remaining() < needed) {
-            deck.reset();
-            deck.shuffle();
-        }
+    // Carries the shoe order so recorders can write keyframes
+    private void announceRound() {
+        int shoeSize = Math.min(round.deck().copyCodes(shoeCodes), shoeCodes.length);
+        events.publish(GameEvent.Type.ROUND_STARTED, round.roundNumber(), GameEvent.SEAT_NONE, -1,
+                0, 0, round.human().gameScore(), round.computer().gameScore(), round.human().name(),
+                shoeCodes, shoeSize);
     }
 
     /* ================= PLAYER ACTIONS ================= */
 
-    public void playerHit() {
-        if (!playerTurn || roundOver) return;
-
-        ensureCardsAvailable(1);
-        human.addCard(deck.draw());
-        gamePanel.refresh();
+    // A replay is drawn on the game panel; its keys and buttons must not reach the hidden live round
 
-        if (human.isBust()) {
-            lastRoundSummary = human.name() + " BUST! Dealer wins the round.";
-            computer.addGameScore(1);
-            finishRound();
-        }
+    public void playerHit() {
+        if (replayPlayer == null) round.hit();
     }
 
     public void playerStand() {
-        if (!playerTurn || roundOver) return;
+        if (replayPlayer == null) round.stand();
+    }
+
+    public void playerDouble() {
+        if (replayPlayer == null) round.doubleDown();
+    }
 
-        playerTurn = false;
-        hideDealerFirstCard = false;
-        gamePanel.refresh();
+    public void playerSplit() {
+        if (replayPlayer == null) round.split();
+    }
 
-        startDealerTurnWithTimer();
+    public void playerInsurance() {
+        if (replayPlayer == null) round.insure();
     }
 
     /* ================= DEALER LOGIC ================= */
@@ -191,59 +270,36 @@ public class GameController {
     private void startDealerTurnWithTimer() {
         stopDealerTimer();
 
+        // One dealer draw per timer tick, then the round is settled
         dealerTimer = new Timer(550, e -> {
-
-            if (roundOver) {
-                stopDealerTimer();
-                return;
-            }
-
-            if (computer.isBust()) {
-                lastRoundSummary = "Dealer BUST! " + human.name() + " wins the round.";
-                human.addGameScore(1);
-                stopDealerTimer();
-                finishRound();
-                return;
-            }
-
-            if (computer.shouldHit()) {
-                ensureCardsAvailable(1);
-                computer.addCard(deck.draw());
-                gamePanel.refresh();
-            } else {
-                stopDealerTimer();
-                evaluateAndScoreRound();
-                finishRound();
-            }
+            if (!round.dealerStep()) stopDealerTimer();
         });
-
         dealerTimer.start();
     }
 
-    private void evaluateAndScoreRound() {
-        int p = human.bestTotal();
-        int d = computer.bestTotal();
-
-        if (p > d) {
-            lastRoundSummary = human.name() + " wins the round (" + p + " vs " + d + ").";
-            human.addGameScore(1);
-        } else if (d > p) {
-            lastRoundSummary = "Dealer wins the round (" + d + " vs " + p + ").";
-            computer.addGameScore(1);
-        } else {
-            lastRoundSummary = "Draw (push) (" + p + " vs " + d + ").";
-        }
+    // One history row per hand, so split hands are analysed like any other hand
+    private void recordRound(int hand, byte outcome) {
+        HandArena hands = round.hands();
+        history.record(
+                round.dealerUpcard(),
+                round.playerStartTotal(),
+                hands.total(hand),
+                round.computer().bestTotal(),
+                outcome,
+                hands.cardCount(hand),
+                round.roundNumber(),
+                round.deck().seed()
+        );
     }
 
     private void finishRound() {
-        roundOver = true;
-        playerTurn = false;
-        hideDealerFirstCard = false;
-        gamePanel.refresh();
+        events.publish(GameEvent.Type.ROUND_SETTLED, round.roundNumber(), GameEvent.SEAT_NONE, -1,
+                round.hands().total(0), round.computer().bestTotal(), round.human().gameScore(),
+                round.computer().gameScore(), round.lastRoundSummary());
 
         nextRoundTimer = new Timer(900, e -> {
             stopNextRoundTimer();
-            if (roundNumber >= MAX_ROUNDS) endGame();
+            if (round.roundNumber() >= MAX_ROUNDS) endGame();
             else startNextRound();
         });
         nextRoundTimer.setRepeats(false);
@@ -255,6 +311,8 @@ public class GameController {
     private void endGame() {
         stopTimers();
 
+        HumanPlayer human = round.human();
+        ComputerPlayer computer = round.computer();
         String winner;
         if (human.gameScore() > computer.gameScore()) {
             winner = human.name() + " wins the game!";
@@ -269,55 +327,108 @@ public class GameController {
                 + "\nDealer: " + computer.gameScore()
                 + "\n\n" + winner;
 
-        saveHighScore(human.name(), human.gameScore(), LocalDate.now().toString());
-        menuPanel.updateHighScoresText(highScoresText());
+        // The high-score consumer writes the file and refreshes the menu
+        events.publish(GameEvent.Type.GAME_ENDED, round.roundNumber(), GameEvent.SEAT_NONE, -1,
+                0, 0, human.gameScore(), computer.gameScore(), human.name());
 
         gameOverPanel.refresh();
         layout.show(root, "OVER");
+
+        if (StageProfiler.ENABLED) System.out.print(StageProfiler.report());
     }
 
     public void restartFromGameOver() {
         startNewGame();
     }
 
+    /* ================= REPLAY ================= */
+
+    public void showReplay() {
+        stopTimers();
+        stopReplay();
+
+        SessionReplay replay;
+        try {
+            replay = SessionReplay.open(SESSION_FILE);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(frame, "No recorded game yet. Finish a game first.");
+            return;
+        }
+
+        layout.show(root, "GAME");
+        replayPlayer = new ReplayPlayer(gamePanel, replay);
+        replayPlayer.start();
+    }
+
+    private void stopReplay() {
+        if (replayPlayer != null) {
+            replayPlayer.stop();
+            replayPlayer = null;
+            gamePanel.refresh();
+        }
+    }
+
+    /* ================= SIMULATION ================= */
+
+    // Simulates this table's rules in the background; the workers never touch the game's state
+    public void showSimulation() {
+        stopTimers();
+        stopReplay();
+        layout.show(root, "SIM");
+        simulationPanel.start(RULES);
+    }
+
     /* ================= UI HELPERS ================= */
 
     public String playerHandText() {
-        return human.handText(false) + "\n\nTotal: " + human.bestTotal();
+        return round.playerHandText();
     }
 
     public String dealerHandText() {
-        return computer.handText(hideDealerFirstCard) + "\n\nTotal: "
-                + (hideDealerFirstCard ? "?" : computer.bestTotal());
+        return round.dealerHandText();
     }
 
-    public String topStatusText() {
-        return "Round " + roundNumber + "/" + MAX_ROUNDS
-                + "   Remaining cards: " + deck.remaining();
+    // Safe to call from any thread; the snapshot itself never changes
+    public TableSnapshot snapshot() {
+        return snapshot;
+    }
+
+    // Publishes a new snapshot; the UI consumer repaints from it after the next event batch
+    private void publish() {
+        StageProfiler.enter(Stage.RENDER);
+        try {
+            snapshot = round.snapshot();
+        } finally {
+            StageProfiler.exit(Stage.RENDER);
+        }
     }
 
-    public String scoreText() {
-        return human.name() + ": " + human.gameScore()
-                + "    Dealer: " + computer.gameScore();
+    // Totals are only filled in for ROUND_SETTLED, so hot events stay allocation-free
+    private void emit(GameEvent.Type type, int seat, int cardCode) {
+        events.publish(type, round.roundNumber(), seat, cardCode,
+                0, 0, round.human().gameScore(), round.computer().gameScore(), null);
     }
 
-    public String turnText() {
-        if (roundOver) return "Round finished";
-        return playerTurn ? "Your turn" : "Dealer turn";
+    public GameMetrics metrics() {
+        return metrics;
     }
 
     public boolean canPlayerAct() {
-        return playerTurn && !roundOver;
+        return round.canPlayerAct();
     }
 
     public String lastRoundSummary() {
-        return lastRoundSummary;
+        return round.lastRoundSummary();
     }
 
     public String finalSummary() {
         return finalSummary;
     }
 
+    public RoundHistory roundHistory() {
+        return history;
+    }
+
     /* ================= RULES & SCORES ================= */
 
     public void showRulesDialog() {
@@ -325,6 +436,10 @@ public class GameController {
                 "Simplified Blackjack Rules\n\n" +
                 "- You and Dealer get 2 cards.\n" +
                 "- You can Hit or Stand.\n" +
+                "- Double (D): double the hand's points, take exactly one more card.\n" +
+                "- Split (P): split a pair into two hands (up to " + RULES.maxHands() + "); split Aces get one card each.\n" +
+                "- Insurance (I): when the Dealer shows an Ace; costs 1 point, pays 2 if the Dealer has Blackjack.\n" +
+                "- With an Ace or a ten up the Dealer checks for Blackjack first.\n" +
                 "- If you go over 21: Bust.\n" +
                 "- Dealer hits until reaching 17, then stands.\n" +
                 "- Game ends after " + MAX_ROUNDS + " rounds.\n\n" +
@@ -365,7 +480,7 @@ public class GameController {
             bw.write(safe(name) + "," + score + "," + safe(date));
             bw.newLine();
         } catch (Exception e) {
-            JOptionPane.showMessageDialog(frame, "Could not save high score.");
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(frame, "Could not save high score."));
         }
     }
 
@@ -395,6 +510,9 @@ public class GameController {
     }
 
     public void exit() {
+        simulationPanel.stop();
+        events.halt();
+        for (QueuedConsumer q : persistence) q.close();
         System.exit(0);
     }
 
@@ -416,34 +534,4 @@ public class GameController {
             nextRoundTimer = null;
         }
     }
-
-    public List<String> playerCardImagePaths() {
-        return human.getCards().stream()
-                .map(Card::resolvedImagePath)
-                .toList();
-    }
-    public List<String> dealerCardImagePaths() {
-
-        List<String> paths = new ArrayList<>();
-
-        List<Card> cards = computer.getCards(); 
-
-        for (int i = 0; i < cards.size(); i++) {
-
-            // Oyuncu hala oynuyorsa → dealer 2. kart kapalı
-            if (i == 1 && canPlayerAct()) {
-                paths.add("/images/cards/back.jpg");
-            } else {
-                paths.add(cards.get(i).resolvedImagePath());
-            }
-        }
-
-        return paths;
-    }
 }
-
-
-
-
-
-
@@ -0,0 +1,134 @@
+package event;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * One slot of the GameEventBus ring.
+ *
+ * Events are preallocated and overwritten in place, so publishing never
+ * allocates. Consumers never see a ring slot directly: the bus copies it
+ * into a consumer-private GameEvent first (see readInto), so a handler can
+ * keep looking at its event even if the producer has moved on.
+ */
+public final class GameEvent {
+
+    public enum Type {
+        CARD_DRAWN, PLAYER_HIT, PLAYER_STOOD, DEALER_HIT, ROUND_SETTLED, GAME_ENDED, RESHUFFLED,
+        ROUND_STARTED, PLAYER_DOUBLED, PLAYER_SPLIT, INSURANCE_TAKEN
+    }
+
+    // Largest card payload an event can carry (a whole 8-deck shoe)
+    public static final int MAX_CARDS = 8 * 52;
+
+    // Who an event is about
+    public static final int SEAT_NONE = -1;
+    public static final int SEAT_PLAYER = 0;
+    public static final int SEAT_DEALER = 1;
+
+    // The player's split hands sit after the dealer: hand h > 0 is seat SEAT_DEALER + h
+    public static int playerSeat(int hand) {
+        return hand == 0 ? SEAT_PLAYER : SEAT_DEALER + hand;
+    }
+
+    public static boolean isPlayerSeat(int seat) {
+        return seat == SEAT_PLAYER || seat > SEAT_DEALER;
+    }
+
+    // Hand index of a player seat
+    public static int handOfSeat(int seat) {
+        return seat == SEAT_PLAYER ? 0 : seat - SEAT_DEALER;
+    }
+
+    private static final VarHandle SEQUENCE;
+
+    static {
+        try {
+            SEQUENCE = MethodHandles.lookup().findVarHandle(GameEvent.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Sequence this slot currently holds; -1 while the producer is writing it
+    @SuppressWarnings("unused")
+    private long sequence = -1;
+
+    private Type type;
+    private int round;
+    private int seat;
+    private int cardCode;       // Card.code(), or -1
+    private int playerTotal;
+    private int dealerTotal;
+    private int playerScore;
+    private int dealerScore;
+    private String text;        // summary / player name; existing strings only, never built per event
+
+    // Card codes attached to the event (ROUND_STARTED: shoe order, bottom to top)
+    private final byte[] cards = new byte[MAX_CARDS];
+    private int cardCount;
+
+    public Type type()        { return type; }
+    public int round()        { return round; }
+    public int seat()         { return seat; }
+    public int cardCode()     { return cardCode; }
+    public int playerTotal()  { return playerTotal; }
+    public int dealerTotal()  { return dealerTotal; }
+    public int playerScore()  { return playerScore; }
+    public int dealerScore()  { return dealerScore; }
+    public String text()      { return text; }
+    public int cardCount()    { return cardCount; }
+    public int card(int i)    { return cards[i]; }
+
+    // -------- Producer side (GameEventBus only) --------
+
+    void write(long seq, Type type, int round, int seat, int cardCode,
+               int playerTotal, int dealerTotal, int playerScore, int dealerScore, String text,
+               byte[] payload, int payloadLength) {
+        SEQUENCE.setRelease(this, -1L);
+        VarHandle.storeStoreFence();
+
+        this.type = type;
+        this.round = round;
+        this.seat = seat;
+        this.cardCode = cardCode;
+        this.playerTotal = playerTotal;
+        this.dealerTotal = dealerTotal;
+        this.playerScore = playerScore;
+        this.dealerScore = dealerScore;
+        this.text = text;
+        if (payloadLength > 0) System.arraycopy(payload, 0, cards, 0, payloadLength);
+        this.cardCount = payloadLength;
+
+        SEQUENCE.setRelease(this, seq);
+    }
+
+    // -------- Consumer side --------
+
+    /**
+     * Copies this slot into target if it still holds the expected sequence.
+     * Returns false when the producer has already overwritten it.
+     */
+    boolean readInto(GameEvent target, long expected) {
+        if ((long) SEQUENCE.getAcquire(this) != expected) return false;
+        copyInto(target);
+        VarHandle.loadLoadFence();
+        return (long) SEQUENCE.getAcquire(this) == expected;
+    }
+
+    // Plain field copy, for events a consumer already owns
+    void copyInto(GameEvent target) {
+        target.type = type;
+        target.round = round;
+        target.seat = seat;
+        target.cardCode = cardCode;
+        target.playerTotal = playerTotal;
+        target.dealerTotal = dealerTotal;
+        target.playerScore = playerScore;
+        target.dealerScore = dealerScore;
+        target.text = text;
+        int n = cardCount;
+        if (n > 0) System.arraycopy(cards, 0, target.cards, 0, n);
+        target.cardCount = n;
+    }
+}
@@ -0,0 +1,174 @@
+package event;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-producer ring buffer of game events (Disruptor style).
+ *
+ * The producer claims the next slot, overwrites the preallocated event and
+ * advances the cursor. Each consumer runs on its own daemon thread with its
+ * own sequence and handles everything published so far as one batch. An
+ * idle consumer spins briefly, then parks until the producer unparks it, so
+ * an idle table costs no wake-ups.
+ *
+ * The producer never waits for a consumer: one that falls a full ring
+ * behind loses the overwritten events (reported via onDropped). Consumers
+ * that must see every event despite slow I/O hand events to their own
+ * queue first (see QueuedConsumer) instead of holding the game back.
+ *
+ * publish() must always be called from the same thread (the EDT for the game).
+ */
+public final class GameEventBus {
+
+    private static final int SPINS_BEFORE_PARK = 100;
+
+    private final GameEvent[] ring;
+    private final int mask;
+
+    // Last published sequence
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private long nextSequence;   // producer thread only
+
+    // Copied on change, so publish() walks it without allocating an iterator
+    private volatile Processor[] processors = new Processor[0];
+
+    public GameEventBus(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        ring = new GameEvent[capacity];
+        for (int i = 0; i < capacity; i++) ring[i] = new GameEvent();
+        mask = capacity - 1;
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    public long cursor() {
+        return cursor.get();
+    }
+
+    public void publish(GameEvent.Type type, int round, int seat, int cardCode,
+                        int playerTotal, int dealerTotal, int playerScore, int dealerScore, String text) {
+        publish(type, round, seat, cardCode, playerTotal, dealerTotal, playerScore, dealerScore, text, null, 0);
+    }
+
+    // Same as above with card codes copied into the slot (at most GameEvent.MAX_CARDS)
+    public void publish(GameEvent.Type type, int round, int seat, int cardCode,
+                        int playerTotal, int dealerTotal, int playerScore, int dealerScore, String text,
+                        byte[] cards, int cardCount) {
+        if (cardCount < 0 || cardCount > GameEvent.MAX_CARDS) {
+            throw new IllegalArgumentException("Too many cards for one event: " + cardCount);
+        }
+        long seq = nextSequence++;
+        ring[(int) seq & mask].write(seq, type, round, seat, cardCode,
+                playerTotal, dealerTotal, playerScore, dealerScore, text, cards, cardCount);
+        // A full volatile write: a consumer about to park re-reads the cursor after announcing itself
+        cursor.set(seq);
+        for (Processor p : processors) {
+            Thread parked = p.parked;
+            if (parked != null) LockSupport.unpark(parked);
+        }
+    }
+
+    // Starts a consumer thread; it sees events published from now on
+    public void addConsumer(String name, GameEventConsumer consumer) {
+        Processor p = new Processor(consumer, cursor.get() + 1);
+        p.thread = new Thread(p, "events-" + name);
+        p.thread.setDaemon(true);
+        synchronized (this) {
+            Processor[] next = Arrays.copyOf(processors, processors.length + 1);
+            next[next.length - 1] = p;
+            processors = next;
+        }
+        p.thread.start();
+    }
+
+    /**
+     * Stops every consumer once it has handled what was published before
+     * this call, and waits for the threads to exit. The bus takes no new
+     * consumers afterwards.
+     */
+    public void halt() {
+        Processor[] stopping;
+        synchronized (this) {
+            stopping = processors;
+        }
+        for (Processor p : stopping) {
+            p.running = false;
+            LockSupport.unpark(p.thread);
+        }
+        boolean interrupted = false;
+        for (Processor p : stopping) {
+            while (p.thread.isAlive()) {
+                try {
+                    p.thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        synchronized (this) {
+            processors = new Processor[0];
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private final class Processor implements Runnable {
+
+        private final GameEventConsumer consumer;
+        private final GameEvent scratch = new GameEvent();
+        private Thread thread;
+        private volatile boolean running = true;
+        private volatile Thread parked;   // set while parked waiting for the producer
+        private long next;
+
+        Processor(GameEventConsumer consumer, long start) {
+            this.consumer = consumer;
+            this.next = start;
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (true) {
+                long available = cursor.get();
+                if (available < next) {
+                    if (!running) return;   // everything published before halt() is handled
+                    if (++idle < SPINS_BEFORE_PARK) {
+                        Thread.onSpinWait();
+                    } else {
+                        // Announce, then re-check: a publish after this point sees parked and unparks
+                        parked = Thread.currentThread();
+                        if (cursor.get() < next && running) LockSupport.park(this);
+                        parked = null;
+                    }
+                    continue;
+                }
+                idle = 0;
+
+                // Lapped by the producer: skip what was overwritten
+                long oldest = available - ring.length + 1;
+                if (next < oldest) {
+                    consumer.onDropped(oldest - next);
+                    next = oldest;
+                }
+
+                for (long seq = next; seq <= available; seq++) {
+                    if (!ring[(int) seq & mask].readInto(scratch, seq)) {
+                        break;   // overwritten while reading; the next pass reports the drop
+                    }
+                    next = seq + 1;
+                    try {
+                        consumer.onEvent(scratch, seq, seq == available);
+                    } catch (Exception e) {
+                        // A failing consumer must not stop the others or the game
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package event;
+
+/**
+ * Reads GameEvents on its own thread, at its own pace.
+ */
+@FunctionalInterface
+public interface GameEventConsumer {
+
+    /**
+     * Called for every event in order. endOfBatch is true for the last event
+     * that was available when this batch started, which is the natural point
+     * to flush or repaint.
+     */
+    void onEvent(GameEvent event, long sequence, boolean endOfBatch) throws Exception;
+
+    // Called when this consumer fell a whole ring behind and events were overwritten
+    default void onDropped(long count) {
+    }
+}
@@ -0,0 +1,44 @@
+package event;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Event-bus consumer that counts what happens at the table.
+ * Written only by its consumer thread; readable from any thread.
+ */
+public final class GameMetrics implements GameEventConsumer {
+
+    private static final GameEvent.Type[] TYPES = GameEvent.Type.values();
+
+    private final AtomicLongArray counts = new AtomicLongArray(TYPES.length);
+    private volatile long dropped;
+
+    @Override
+    public void onEvent(GameEvent event, long sequence, boolean endOfBatch) {
+        int i = event.type().ordinal();
+        counts.lazySet(i, counts.get(i) + 1);
+    }
+
+    @Override
+    public void onDropped(long count) {
+        dropped += count;
+    }
+
+    public long count(GameEvent.Type type) {
+        return counts.get(type.ordinal());
+    }
+
+    public long dropped() {
+        return dropped;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (GameEvent.Type t : TYPES) {
+            sb.append(t).append(": ").append(count(t)).append("\n");
+        }
+        sb.append("dropped: ").append(dropped);
+        return sb.toString();
+    }
+}
@@ -1,7 +1,6 @@
 package ui;
 
 import java.awt.BorderLayout;
-import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
 import java.awt.Insets;
@@ -11,16 +10,17 @@ import java.util.List;
 import javax.swing.AbstractAction;
 import javax.swing.ActionMap;
 import javax.swing.BorderFactory;
-import javax.swing.ImageIcon;
 import javax.swing.InputMap;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
-import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.KeyStroke;
 
 import controller.GameController;
+import controller.StageProfiler;
+import controller.StageProfiler.Stage;
+import controller.TableSnapshot;
 
 public class GamePanel extends JPanel {
 
@@ -37,13 +37,15 @@ public class GamePanel extends JPanel {
     // Small summary text (e.g., last round result)
     private final JTextArea summaryArea = new JTextArea();
 
-    // Card display panels (we show card images instead of plain text)
-    private final JPanel playerCardsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 8));
-    private final JPanel dealerCardsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 8));
+    // Both hands, painted by one component (we show card images instead of plain text)
+    private final TableView tableView = new TableView();
 
     // Control buttons
     private final JButton hitBtn = new JButton("Hit");
     private final JButton standBtn = new JButton("Stand");
+    private final JButton doubleBtn = new JButton("Double");
+    private final JButton splitBtn = new JButton("Split");
+    private final JButton insuranceBtn = new JButton("Insurance");
     private final JButton menuBtn = new JButton("Main Menu");
 
     public GamePanel(GameController controller) {
@@ -77,28 +79,22 @@ public class GamePanel extends JPanel {
 
         add(header, BorderLayout.NORTH);
 
-        playerCardsPanel.setBorder(BorderFactory.createTitledBorder("PLAYER"));
-        dealerCardsPanel.setBorder(BorderFactory.createTitledBorder("DEALER"));
-
-        JScrollPane playerScroll = new JScrollPane(playerCardsPanel);
-        JScrollPane dealerScroll = new JScrollPane(dealerCardsPanel);
-
-        playerScroll.setBorder(BorderFactory.createEmptyBorder());
-        dealerScroll.setBorder(BorderFactory.createEmptyBorder());
-
-        JPanel center = new JPanel(new GridLayout(1, 2, 10, 10));
-        center.add(playerScroll);
-        center.add(dealerScroll);
-        add(center, BorderLayout.CENTER);
+        add(tableView, BorderLayout.CENTER);
 
         JPanel controls = new JPanel();
 
         hitBtn.addActionListener(e -> controller.playerHit());
         standBtn.addActionListener(e -> controller.playerStand());
+        doubleBtn.addActionListener(e -> controller.playerDouble());
+        splitBtn.addActionListener(e -> controller.playerSplit());
+        insuranceBtn.addActionListener(e -> controller.playerInsurance());
         menuBtn.addActionListener(e -> controller.showMenu());
 
         controls.add(hitBtn);
         controls.add(standBtn);
+        controls.add(doubleBtn);
+        controls.add(splitBtn);
+        controls.add(insuranceBtn);
         controls.add(menuBtn);
         add(controls, BorderLayout.SOUTH);
 
@@ -112,6 +108,9 @@ public class GamePanel extends JPanel {
 
         im.put(KeyStroke.getKeyStroke(KeyEvent.VK_H, 0), "HIT");
         im.put(KeyStroke.getKeyStroke(KeyEvent.VK_S, 0), "STAND");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_D, 0), "DOUBLE");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_P, 0), "SPLIT");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_I, 0), "INSURANCE");
         im.put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "MENU");
 
         am.put("HIT", new AbstractAction() {
@@ -128,81 +127,90 @@ public class GamePanel extends JPanel {
             }
         });
 
-        am.put("MENU", new AbstractAction() {
+        am.put("DOUBLE", new AbstractAction() {
             @Override
             public void actionPerformed(java.awt.event.ActionEvent e) {
-                controller.showMenu();
+                controller.playerDouble();
             }
         });
-    }
 
-    private boolean hideDealerSecondCard = true;
+        am.put("SPLIT", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                controller.playerSplit();
+            }
+        });
 
-    private void renderCards(JPanel target, List<String> resourcePaths) {
-        target.removeAll();
+        am.put("INSURANCE", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                controller.playerInsurance();
+            }
+        });
 
-        if (resourcePaths == null || resourcePaths.isEmpty()) {
-            target.add(new JLabel("(no cards)"));
-        } else {
+        am.put("MENU", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                controller.showMenu();
+            }
+        });
+    }
 
-            boolean isDealerPanel = (target == dealerCardsPanel);
+    // Hands of the last rendered snapshot; unchanged lists skip the repaint
+    private List<List<String>> shownPlayerHands = List.of();
+    private List<Integer> shownBets = List.of();
+    private int shownActiveHand = -1;
+    private List<String> shownDealerCards;
 
-            for (int i = 0; i < resourcePaths.size(); i++) {
+    public void refresh() {
+        render(controller.snapshot());
+    }
 
-                String path = resourcePaths.get(i);
+    public void render(TableSnapshot s) {
+        StageProfiler.enter(Stage.RENDER);
+        try {
+            topStatus.setText(s.topStatusText());
+            score.setText(s.scoreText());
+            turn.setText(s.turnText());
 
-                // 🔒 Dealer'ın 2. kartı gizli
-                if (isDealerPanel && i == 1 && hideDealerSecondCard) {
-                    path = "/images/cards/back.jpg";
-                }
+            String summary = s.lastRoundSummary();
+            summaryArea.setText(summary);
 
-                JLabel cardLabel = new JLabel(loadIcon(path));
-                cardLabel.setBorder(BorderFactory.createEmptyBorder(2, 2, 2, 2));
-                target.add(cardLabel);
+            if (s.roundOver() && !summary.trim().isEmpty()) {
+                winnerLabel.setText(summary);
+            } else {
+                winnerLabel.setText("");
             }
-        }
-
-        target.revalidate();
-        target.repaint();
-    }
-
 
- 
-
-    private ImageIcon loadIcon(String resourcePath) {
-        if (resourcePath == null || resourcePath.trim().isEmpty()) {
-            return new ImageIcon(new byte[0]);
-        }
+            // The active hand is only outlined while the player is choosing
+            int active = s.canPlayerAct() && s.playerHands().size() > 1 ? s.activeHand() : -1;
+            if (!sameHands(s.playerHands(), shownPlayerHands) || s.dealerCards() != shownDealerCards
+                    || active != shownActiveHand || !s.handBets().equals(shownBets)) {
+                tableView.setHands(s.playerHands(), s.handBets(), active, s.dealerCards());
+                shownPlayerHands = s.playerHands();
+                shownBets = s.handBets();
+                shownActiveHand = active;
+                shownDealerCards = s.dealerCards();
+            }
 
-        java.net.URL url = getClass().getResource(resourcePath);
-        if (url == null) {
-            return new ImageIcon(new byte[0]);
+            boolean canAct = s.canPlayerAct();
+            hitBtn.setEnabled(canAct);
+            standBtn.setEnabled(canAct);
+            doubleBtn.setEnabled(s.canDouble());
+            splitBtn.setEnabled(s.canSplit());
+            insuranceBtn.setEnabled(s.canInsure());
+        } finally {
+            StageProfiler.exit(Stage.RENDER);
         }
-        return new ImageIcon(url);
     }
-    
-
-    public void refresh() {
-        topStatus.setText(controller.topStatusText());
-        score.setText(controller.scoreText());
-        turn.setText(controller.turnText());
-
-        String summary = controller.lastRoundSummary();
-        summaryArea.setText(summary == null ? "" : summary);
 
-        if ("Round finished".equals(controller.turnText()) && summary != null && !summary.trim().isEmpty()) {
-            winnerLabel.setText(summary);
-        } else {
-            winnerLabel.setText("");
+    // Hand lists are shared between snapshots while unchanged, so identity is enough
+    private static boolean sameHands(List<List<String>> a, List<List<String>> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) return false;
         }
-        hideDealerSecondCard = controller.canPlayerAct();
-
-        renderCards(playerCardsPanel, controller.playerCardImagePaths());
-        renderCards(dealerCardsPanel, controller.dealerCardImagePaths());
-
-        boolean canAct = controller.canPlayerAct();
-        hitBtn.setEnabled(canAct);
-        standBtn.setEnabled(canAct);
+        return true;
     }
 
 }
@@ -0,0 +1,123 @@
+package model;
+
+/**
+ * The player's hands for one round, kept in flat primitive arrays.
+ *
+ * Room for MAX_HANDS hands of MAX_CARDS cards is allocated once and clear()
+ * only resets the counters, so the simulator reuses one arena for every
+ * round without allocating. A hand is its card codes (Card.code()), its hard
+ * sum and Ace count (kept up to date as cards are added) and its bet as a
+ * multiple of the opening bet.
+ */
+public final class HandArena {
+
+    public static final int MAX_HANDS = 4;
+
+    // A hand stops drawing once its hard sum passes 21: 21 Aces plus one card is the most it can hold
+    public static final int MAX_CARDS = 22;
+
+    private static final byte DOUBLED = 1;
+    private static final byte SPLIT = 2;
+
+    private final byte[] codes = new byte[MAX_HANDS * MAX_CARDS];
+    private final int[] cardCount = new int[MAX_HANDS];
+    private final int[] hard = new int[MAX_HANDS];
+    private final int[] aces = new int[MAX_HANDS];
+    private final int[] bet = new int[MAX_HANDS];
+    private final byte[] flags = new byte[MAX_HANDS];
+    private int handCount;
+
+    // Blackjack value of a card code: 1 for an Ace, 10 for ten and face cards
+    public static int value(int code) {
+        return Math.min((code >> 2) + 1, 10);
+    }
+
+    public void clear() {
+        handCount = 0;
+    }
+
+    // Starts an empty hand with the given bet and returns its index
+    public int open(int betUnits) {
+        if (handCount == MAX_HANDS) throw new IllegalStateException("No room for another hand");
+        if (betUnits < 1) throw new IllegalArgumentException("Bet must be positive");
+        int h = handCount++;
+        cardCount[h] = 0;
+        hard[h] = 0;
+        aces[h] = 0;
+        bet[h] = betUnits;
+        flags[h] = 0;
+        return h;
+    }
+
+    public void add(int hand, int code) {
+        check(hand);
+        if (cardCount[hand] == MAX_CARDS) throw new IllegalStateException("Hand is full");
+        codes[hand * MAX_CARDS + cardCount[hand]++] = (byte) code;
+        int v = value(code);
+        hard[hand] += v;
+        if (v == 1) aces[hand]++;
+    }
+
+    // A two-card hand whose cards have the same value (any two ten-valued cards count)
+    public boolean isPair(int hand) {
+        check(hand);
+        return cardCount[hand] == 2
+                && value(codes[hand * MAX_CARDS]) == value(codes[hand * MAX_CARDS + 1]);
+    }
+
+    /**
+     * Moves the second card of a pair into a new hand with the same bet and
+     * returns the new hand's index; both hands are left with one card.
+     */
+    public int split(int hand) {
+        if (!isPair(hand)) throw new IllegalStateException("Only a pair can be split");
+        int code = codes[hand * MAX_CARDS + 1];
+        int h = open(bet[hand]);
+        cardCount[hand] = 1;
+        int v = value(code);
+        hard[hand] -= v;
+        if (v == 1) aces[hand]--;
+        flags[hand] |= SPLIT;
+        add(h, code);
+        flags[h] |= SPLIT;
+        return h;
+    }
+
+    public void doubleBet(int hand) {
+        check(hand);
+        if ((flags[hand] & DOUBLED) != 0) throw new IllegalStateException("Hand is already doubled");
+        bet[hand] *= 2;
+        flags[hand] |= DOUBLED;
+    }
+
+    public int handCount()              { return handCount; }
+    public int cardCount(int hand)      { check(hand); return cardCount[hand]; }
+    public int code(int hand, int i)    { check(hand); return codes[hand * MAX_CARDS + i]; }
+    public int hard(int hand)           { check(hand); return hard[hand]; }
+    public int aces(int hand)           { check(hand); return aces[hand]; }
+    public int bet(int hand)            { check(hand); return bet[hand]; }
+    public boolean isDoubled(int hand)  { check(hand); return (flags[hand] & DOUBLED) != 0; }
+    public boolean isSplit(int hand)    { check(hand); return (flags[hand] & SPLIT) != 0; }
+
+    // Best total <= 21 if possible (one Ace counted as 11), else the hard sum
+    public int total(int hand) {
+        check(hand);
+        int h = hard[hand];
+        return (aces[hand] > 0 && h + 10 <= 21) ? h + 10 : h;
+    }
+
+    public boolean isBust(int hand) {
+        check(hand);
+        return hard[hand] > 21;
+    }
+
+    // Two-card 21 that did not come from a split
+    public boolean isNatural(int hand) {
+        check(hand);
+        return cardCount[hand] == 2 && hard[hand] == 11 && aces[hand] == 1 && (flags[hand] & SPLIT) == 0;
+    }
+
+    private void check(int hand) {
+        if (hand < 0 || hand >= handCount) throw new IndexOutOfBoundsException("Hand " + hand);
+    }
+}
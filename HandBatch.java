@@ -0,0 +1,65 @@
+package sim;
+
+/**
+ * Structure-of-arrays batch of settled hands.
+ *
+ * Inputs are the raw hand state (hard sums with every Ace as 1, Ace counts,
+ * dealer upcard); HandEvaluator fills the output columns. One batch is meant
+ * to be refilled and reused for every chunk of a simulation.
+ */
+public class HandBatch {
+
+    // Inputs
+    public final int[] playerHard;
+    public final int[] playerAces;
+    public final int[] dealerHard;
+    public final int[] dealerAces;
+    public final int[] dealerUpcard;
+
+    // Outputs
+    public final int[] playerBest;
+    public final int[] dealerBest;
+    public final boolean[] playerBust;
+    public final int[] outcome;      // RoundHistory.WIN / LOSS / PUSH
+
+    private int size;
+
+    public HandBatch(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        playerHard = new int[capacity];
+        playerAces = new int[capacity];
+        dealerHard = new int[capacity];
+        dealerAces = new int[capacity];
+        dealerUpcard = new int[capacity];
+        playerBest = new int[capacity];
+        dealerBest = new int[capacity];
+        playerBust = new boolean[capacity];
+        outcome = new int[capacity];
+    }
+
+    public int capacity() {
+        return playerHard.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == playerHard.length;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int pHard, int pAces, int dHard, int dAces, int upcard) {
+        if (size == playerHard.length) throw new IllegalStateException("Batch is full");
+        int i = size++;
+        playerHard[i] = pHard;
+        playerAces[i] = pAces;
+        dealerHard[i] = dHard;
+        dealerAces[i] = dAces;
+        dealerUpcard[i] = upcard;
+    }
+}
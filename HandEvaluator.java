@@ -0,0 +1,62 @@
+package sim;
+
+/**
+ * Settles a HandBatch: best totals, player bust flags and outcomes.
+ *
+ * Results are identical to Player.bestTotal() / isBust() and to the way
+ * GameController scores a round (player bust loses first, then dealer bust
+ * wins, then the higher total wins).
+ */
+public interface HandEvaluator {
+
+    void evaluate(HandBatch batch);
+
+    // Plain loop over the columns; always available
+    static HandEvaluator scalar() {
+        return ScalarHandEvaluator.INSTANCE;
+    }
+
+    /**
+     * Vector API kernel when jdk.incubator.vector is present
+     * (run with --add-modules jdk.incubator.vector), otherwise the scalar one.
+     */
+    static HandEvaluator fastest() {
+        try {
+            Class<?> k = Class.forName("sim.VectorHandEvaluator");
+            return (HandEvaluator) k.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return scalar();
+        }
+    }
+}
+
+final class ScalarHandEvaluator implements HandEvaluator {
+
+    static final ScalarHandEvaluator INSTANCE = new ScalarHandEvaluator();
+
+    private ScalarHandEvaluator() {
+    }
+
+    @Override
+    public void evaluate(HandBatch b) {
+        int n = b.size();
+        for (int i = 0; i < n; i++) {
+            int pHard = b.playerHard[i];
+            int dHard = b.dealerHard[i];
+            int p = RoundSimulator.bestTotal(pHard, b.playerAces[i]);
+            int d = RoundSimulator.bestTotal(dHard, b.dealerAces[i]);
+
+            b.playerBest[i] = p;
+            b.dealerBest[i] = d;
+            b.playerBust[i] = pHard > 21;
+
+            int o;
+            if (pHard > 21) o = RoundHistory.LOSS;
+            else if (dHard > 21) o = RoundHistory.WIN;
+            else if (p > d) o = RoundHistory.WIN;
+            else if (d > p) o = RoundHistory.LOSS;
+            else o = RoundHistory.PUSH;
+            b.outcome[i] = o;
+        }
+    }
+}
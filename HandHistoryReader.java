@@ -0,0 +1,119 @@
+package history;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Streaming decoder for files written by HandHistoryWriter.
+ * Reads through one reusable buffer and decodes into a caller-owned RoundRecord.
+ */
+public final class HandHistoryReader implements Closeable {
+
+    private final InputStream in;
+    private final byte[] buf = new byte[1 << 16];
+    private int pos;
+    private int limit;
+
+    // Hand headers of the frame being read
+    private final int[] sizes = new int[RoundRecord.MAX_HANDS];
+    private final boolean[] doubled = new boolean[RoundRecord.MAX_HANDS];
+
+    // Bit unpacking state for the frame being read
+    private int bitAcc;
+    private int bitCount;
+    private int bitPos;
+
+    public HandHistoryReader(InputStream in) throws IOException {
+        if (in == null) throw new IllegalArgumentException("Stream cannot be null");
+        this.in = in;
+
+        if (!fill(4)) throw new EOFException("Missing hand history header");
+        int magic = ((buf[0] & 0xFF) << 24) | ((buf[1] & 0xFF) << 16) | ((buf[2] & 0xFF) << 8) | (buf[3] & 0xFF);
+        if (magic != HandHistoryWriter.MAGIC) throw new IOException("Not a hand history file");
+        pos = 4;
+    }
+
+    public static HandHistoryReader compressed(InputStream in) throws IOException {
+        return new HandHistoryReader(new InflaterInputStream(in, new Inflater(), 1 << 16));
+    }
+
+    /**
+     * Decodes the next frame into r. Returns false at a clean end of stream;
+     * a frame cut off in the middle is an EOFException.
+     */
+    public boolean next(RoundRecord r) throws IOException {
+        if (!fill(1)) return false;
+        int length = buf[pos] & 0xFF;
+        if (!fill(1 + length)) throw new EOFException("Truncated frame");
+
+        int p = pos + 1;
+        long round = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buf[p++];
+            round |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+
+        bitPos = p;
+        bitAcc = 0;
+        bitCount = 0;
+
+        r.clear();
+        r.set(round, (byte) getBits(2));
+        int hands = getBits(3);
+        if (hands > RoundRecord.MAX_HANDS) throw new IOException("Frame has " + hands + " hands");
+        r.setInsurance(getBits(1) != 0);
+        for (int h = 0; h < hands; h++) {
+            doubled[h] = getBits(1) != 0;
+            sizes[h] = getBits(5);
+        }
+        int dealerCount = getBits(5);
+        for (int h = 0; h < hands; h++) {
+            if (sizes[h] > RoundRecord.MAX_HAND_CARDS) throw new IOException("Hand of " + sizes[h] + " cards");
+            r.startHand(doubled[h]);
+            for (int i = 0; i < sizes[h]; i++) r.addPlayerCard(getBits(6));
+        }
+        for (int i = 0; i < dealerCount; i++) r.addDealerCard(getBits(6));
+
+        pos += 1 + length;
+        return true;
+    }
+
+    private int getBits(int width) {
+        while (bitCount < width) {
+            bitAcc = (bitAcc << 8) | (buf[bitPos++] & 0xFF);
+            bitCount += 8;
+        }
+        bitCount -= width;
+        int v = (bitAcc >>> bitCount) & ((1 << width) - 1);
+        bitAcc &= (1 << bitCount) - 1;
+        return v;
+    }
+
+    // Makes sure at least n unread bytes are buffered; false on end of stream
+    private boolean fill(int n) throws IOException {
+        if (limit - pos >= n) return true;
+
+        System.arraycopy(buf, pos, buf, 0, limit - pos);
+        limit -= pos;
+        pos = 0;
+
+        while (limit < n) {
+            int read = in.read(buf, limit, buf.length - limit);
+            if (read < 0) return false;
+            limit += read;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,176 @@
+package history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import model.Deck;
+import model.TableRules;
+import sim.PlayerStrategy;
+import sim.RoundSimulator;
+
+/**
+ * Streaming encoder for bit-packed hand histories.
+ *
+ * File layout: 4-byte magic, then one frame per round:
+ *
+ *   [payload length: varint][round: varint][bits: outcome 2 | hands 3 |
+ *    insurance 1 | per hand: doubled 1, cards 5 | dealer cards 5 |
+ *    6 bits per card (4 rank, 2 suit), hand by hand, then the dealer's],
+ *    padded to a byte
+ *
+ * Split hands keep their boundaries and each hand's bet (doubled or not),
+ * so a round of the STANDARD rules reads back exactly.
+ *
+ * An average round takes about 11 bytes, versus ~100 as text. Frames are
+ * byte aligned and repetitive, so they also deflate well (see compressed()).
+ * Output is staged in one reusable buffer; write() does not allocate.
+ */
+public final class HandHistoryWriter implements Closeable, Flushable {
+
+    public static final int MAGIC = 0x424A4831;   // "BJH1"
+
+    // Worst case: 1 length byte + 10-byte round varint + ceil((6 + 4 * 6 + 5 + (4 * 22 + 31) * 6) / 8)
+    // = 94 bytes of bits = 105 bytes; the 104-byte payload keeps the length a single varint byte (< 128)
+    static final int MAX_FRAME = 112;
+
+    private final OutputStream out;
+    private final byte[] buf = new byte[1 << 16];
+    private int pos;
+    private long bytesWritten;
+    private long frames;
+
+    // Bit packing state for the frame being written
+    private int bitAcc;
+    private int bitCount;
+    private int bitPos;
+
+    public HandHistoryWriter(OutputStream out) throws IOException {
+        if (out == null) throw new IllegalArgumentException("Stream cannot be null");
+        this.out = out;
+        buf[0] = (byte) (MAGIC >>> 24);
+        buf[1] = (byte) (MAGIC >>> 16);
+        buf[2] = (byte) (MAGIC >>> 8);
+        buf[3] = (byte) MAGIC;
+        pos = 4;
+    }
+
+    // Deflate-compressed stream; read it back with HandHistoryReader.compressed()
+    public static HandHistoryWriter compressed(OutputStream out) throws IOException {
+        return new HandHistoryWriter(new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED), 1 << 16));
+    }
+
+    public void write(RoundRecord r) throws IOException {
+        if (buf.length - pos < MAX_FRAME) drain();
+
+        // Length fits in a single varint byte; fill it in once the payload is known
+        int lengthAt = pos;
+        bitPos = putVarLong(buf, pos + 1, r.round());
+
+        putBits(r.outcome() & 0x3, 2);
+        putBits(r.handCount(), 3);
+        putBits(r.insurance() ? 1 : 0, 1);
+        for (int h = 0; h < r.handCount(); h++) {
+            putBits(r.isDoubled(h) ? 1 : 0, 1);
+            putBits(r.handSize(h), 5);
+        }
+        putBits(r.dealerCount(), 5);
+        for (int i = 0; i < r.playerCount(); i++) putBits(r.playerCard(i) & 0x3F, 6);
+        for (int i = 0; i < r.dealerCount(); i++) putBits(r.dealerCard(i) & 0x3F, 6);
+        if (bitCount > 0) putBits(0, 8 - bitCount);   // pad to a whole byte
+
+        buf[lengthAt] = (byte) (bitPos - lengthAt - 1);
+        pos = bitPos;
+        frames++;
+    }
+
+    // Appends the low 'width' bits of value, MSB first
+    private void putBits(int value, int width) {
+        bitAcc = (bitAcc << width) | value;
+        bitCount += width;
+        while (bitCount >= 8) {
+            bitCount -= 8;
+            buf[bitPos++] = (byte) (bitAcc >>> bitCount);
+        }
+        bitAcc &= (1 << bitCount) - 1;
+    }
+
+    static int putVarLong(byte[] b, int p, long v) {
+        while ((v & ~0x7FL) != 0) {
+            b[p++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        b[p++] = (byte) v;
+        return p;
+    }
+
+    private void drain() throws IOException {
+        out.write(buf, 0, pos);
+        bytesWritten += pos;
+        pos = 0;
+    }
+
+    // Uncompressed bytes produced so far (including what is still buffered)
+    public long bytesWritten() {
+        return bytesWritten + pos;
+    }
+
+    public long frames() {
+        return frames;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        drain();
+        out.close();
+    }
+
+    // Throughput check with splits and doubles: java history.HandHistoryWriter [rounds]
+    public static void main(String[] args) throws IOException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        RoundSimulator sim = new RoundSimulator(new Deck(1L), PlayerStrategy.basic(), TableRules.STANDARD);
+        RoundRecord rec = new RoundRecord();
+
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(rounds * 12);
+        long t0 = System.nanoTime();
+        try (HandHistoryWriter w = new HandHistoryWriter(raw)) {
+            for (int i = 0; i < rounds; i++) {
+                byte outcome = sim.playRound();
+                rec.fillFrom(sim, i, outcome);
+                w.write(rec);
+            }
+        }
+        long t1 = System.nanoTime();
+
+        byte[] bytes = raw.toByteArray();
+        long cards = 0;
+        try (HandHistoryReader r = new HandHistoryReader(new ByteArrayInputStream(bytes))) {
+            while (r.next(rec)) cards += rec.playerCount() + rec.dealerCount();
+        }
+        long t2 = System.nanoTime();
+
+        ByteArrayOutputStream packed = new ByteArrayOutputStream();
+        try (HandHistoryWriter w = compressed(packed);
+             HandHistoryReader r = new HandHistoryReader(new ByteArrayInputStream(bytes))) {
+            while (r.next(rec)) w.write(rec);
+        }
+
+        double mb = bytes.length / 1e6;
+        System.out.printf("%d rounds, %d cards, %.2f bytes/round, deflated %.2f bytes/round%n",
+                rounds, cards, (double) bytes.length / rounds, (double) packed.size() / rounds);
+        System.out.printf("Simulate+encode %.0f MB/s, decode %.0f MB/s%n",
+                mb / ((t1 - t0) / 1e9), mb / ((t2 - t1) / 1e9));
+    }
+}
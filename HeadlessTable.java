@@ -0,0 +1,101 @@
+package controller;
+
+import event.GameEvent;
+import model.Deck;
+import model.HandArena;
+import model.TableRules;
+
+/**
+ * One table without a window: GameController's rounds (TableRound, with
+ * the same STANDARD rules) driven by method calls, for load tests and other
+ * in-process clients.
+ *
+ * Every action returns the TableSnapshot a GamePanel would render, rebuilt
+ * at the same points as in the interactive game, so an action costs what it
+ * costs there minus the painting and the event bus. The dealer plays out at
+ * once instead of on a timer, and a new game starts by itself after
+ * MAX_ROUNDS. Not thread-safe: one client drives one table.
+ */
+public final class HeadlessTable {
+
+    private final TableRound round;
+    private long roundsPlayed;
+
+    private TableSnapshot snapshot;
+
+    public HeadlessTable(String playerName, long seed) {
+        if (playerName == null || playerName.isBlank()) throw new IllegalArgumentException("Name cannot be empty");
+        this.round = new TableRound(TableRules.STANDARD, new Deck(seed), playerName, new TableRound.Listener() {
+            @Override
+            public void event(GameEvent.Type type, int seat, int cardCode) {
+                // nobody is listening
+            }
+
+            @Override
+            public void changed() {
+                snapshot = round.snapshot();
+            }
+
+            @Override
+            public void dealerTurn() {
+                while (round.dealerStep()) {
+                    // draw until the dealer stands or busts; the last step settles
+                }
+            }
+
+            @Override
+            public void roundSettled() {
+                roundsPlayed++;
+            }
+        });
+        snapshot = round.snapshot();
+    }
+
+    public TableSnapshot snapshot()  { return snapshot; }
+    public boolean canPlayerAct()    { return round.canPlayerAct(); }
+    public long roundsPlayed()       { return roundsPlayed; }
+
+    // The hand being played, for clients that choose their own action (see TableSnapshot for what is open)
+    public int playerHard()          { return round.hands().hard(round.activeHand()); }
+    public int playerAces()          { return round.hands().aces(round.activeHand()); }
+    public int playerTotal()         { return round.hands().total(round.activeHand()); }
+    public int dealerUpcard()        { return round.dealerUpcard(); }
+
+    // Value of each card of the active hand's pair (1 = Aces)
+    public int pairValue() {
+        return HandArena.value(round.hands().code(round.activeHand(), 0));
+    }
+
+    /** Deals the next round (the first of a new game once MAX_ROUNDS are played). */
+    public TableSnapshot startRound() {
+        if (!round.roundOver()) throw new IllegalStateException("Round " + round.roundNumber() + " is still being played");
+        if (round.roundNumber() >= GameController.MAX_ROUNDS) round.newGame(false);
+        round.startRound();
+        return snapshot;
+    }
+
+    public TableSnapshot hit() {
+        if (!round.hit()) throw new IllegalStateException("Not the player's turn");
+        return snapshot;
+    }
+
+    public TableSnapshot stand() {
+        if (!round.stand()) throw new IllegalStateException("Not the player's turn");
+        return snapshot;
+    }
+
+    public TableSnapshot doubleDown() {
+        if (!round.doubleDown()) throw new IllegalStateException("Cannot double now");
+        return snapshot;
+    }
+
+    public TableSnapshot split() {
+        if (!round.split()) throw new IllegalStateException("Cannot split now");
+        return snapshot;
+    }
+
+    public TableSnapshot insure() {
+        if (!round.insure()) throw new IllegalStateException("No insurance on offer");
+        return snapshot;
+    }
+}
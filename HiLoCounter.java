@@ -0,0 +1,32 @@
+package betting;
+
+/**
+ * Hi-Lo running count: 2..6 count +1, 7..9 count 0, tens and Aces count -1.
+ *
+ * The true count divides the running count by the decks still in the shoe,
+ * so the same running count means more late in the shoe than early.
+ */
+public final class HiLoCounter {
+
+    // Indexed by blackjack value, 1 (Ace) .. 10
+    private static final int[] TAG = {0, -1, 1, 1, 1, 1, 1, 0, 0, 0, -1};
+
+    private int running;
+
+    public void reset() {
+        running = 0;
+    }
+
+    public void see(int cardValue) {
+        running += TAG[cardValue];
+    }
+
+    public int runningCount() {
+        return running;
+    }
+
+    public double trueCount(int cardsRemaining) {
+        double decks = Math.max(0.5, cardsRemaining / 52.0);
+        return running / decks;
+    }
+}
@@ -0,0 +1,115 @@
+package sim;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent latency histogram with HdrHistogram's bucket layout.
+ *
+ * Values below 128 ns have a bucket each. Above that, every power of two
+ * is split into 64 equal sub-buckets, so a bucket is never wider than
+ * 1/64 (about 1.6%) of the values in it. Quantiles are reported as the
+ * bucket's upper bound, so they never understate a latency. Values up to
+ * MAX_VALUE (about 36 minutes) take 2,304 counters; larger ones are clamped.
+ *
+ * record() is one atomic increment on one of STRIPES copies of the
+ * counters, chosen by thread id, so thousands of threads can record
+ * without contending on one cache line. Readers add the stripes up.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_HALF = 1 << (SUB_BITS - 1);   // 64 sub-buckets per power of two
+    private static final int MAX_SHIFT = 34;
+
+    public static final long MAX_VALUE = (1L << (MAX_SHIFT + SUB_BITS)) - 1;
+    private static final int BUCKETS = (MAX_SHIFT + 2) * SUB_HALF;
+
+    // A power of two, at least twice the number of cores
+    private static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKETS);
+
+    public void record(long nanos) {
+        if (nanos < 0) throw new IllegalArgumentException("Latency cannot be negative");
+        int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+        counts.incrementAndGet(stripe * BUCKETS + bucket(Math.min(nanos, MAX_VALUE)));
+    }
+
+    // Folds the stripes into one array of bucket counts
+    private long[] totals() {
+        long[] t = new long[BUCKETS];
+        for (int s = 0; s < STRIPES; s++) {
+            for (int b = 0; b < BUCKETS; b++) t[b] += counts.get(s * BUCKETS + b);
+        }
+        return t;
+    }
+
+    public long count() {
+        long n = 0;
+        for (long c : totals()) n += c;
+        return n;
+    }
+
+    public long quantile(double q) {
+        return quantiles(q)[0];
+    }
+
+    /** Upper bound of the value at each quantile (0..1); one pass over the buckets. */
+    public long[] quantiles(double... qs) {
+        long[] t = totals();
+        long n = 0;
+        for (long c : t) n += c;
+
+        long[] out = new long[qs.length];
+        for (int i = 0; i < qs.length; i++) {
+            if (!(qs[i] >= 0.0 && qs[i] <= 1.0)) throw new IllegalArgumentException("Quantile must be in [0, 1]");
+            if (n == 0) continue;
+            long rank = Math.max(1, (long) Math.ceil(qs[i] * n));
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += t[b];
+                if (seen >= rank) {
+                    out[i] = highest(b);
+                    break;
+                }
+            }
+        }
+        return out;
+    }
+
+    public long max() {
+        long[] t = totals();
+        for (int b = BUCKETS - 1; b >= 0; b--) {
+            if (t[b] != 0) return highest(b);
+        }
+        return 0;
+    }
+
+    public double mean() {
+        long[] t = totals();
+        long n = 0;
+        double sum = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            n += t[b];
+            sum += (double) t[b] * (lowest(b) + highest(b)) / 2;
+        }
+        return n == 0 ? 0.0 : sum / n;
+    }
+
+    static int bucket(long v) {
+        if (v < 2 * SUB_HALF) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - (SUB_BITS - 1);
+        return (shift + 1) * SUB_HALF + (int) (v >> shift) - SUB_HALF;
+    }
+
+    static long lowest(int bucket) {
+        if (bucket < 2 * SUB_HALF) return bucket;
+        int shift = bucket / SUB_HALF - 1;
+        return (long) (bucket % SUB_HALF + SUB_HALF) << shift;
+    }
+
+    static long highest(int bucket) {
+        if (bucket < 2 * SUB_HALF) return bucket;
+        return lowest(bucket) + (1L << (bucket / SUB_HALF - 1)) - 1;
+    }
+}
@@ -0,0 +1,202 @@
+package sim;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+import model.Deck;
+import model.Shoe;
+import model.TableRules;
+
+/**
+ * Open-ended simulation that can be watched while it runs.
+ *
+ * Each worker thread plays rounds on its own shoe (a Deck unless another
+ * shoe factory is given, seeded seed + worker index) and keeps its totals
+ * in a plain long[]. Every CHUNK_ROUNDS rounds it publishes a copy of that
+ * array into its slot, so a reader never sees a half-updated worker:
+ * snapshot() sums the latest copy of every worker without locking or
+ * slowing them.
+ *
+ * cancel() only raises a flag; workers see it at their next chunk boundary
+ * (well under a millisecond) and exit on their own, so it is safe to call
+ * from the EDT. awaitTermination() is there for callers that must know the
+ * threads are gone.
+ */
+public final class LiveSimulation {
+
+    // Rounds a worker plays between two published snapshots
+    static final int CHUNK_ROUNDS = 4096;
+
+    // Layout of a worker's totals; dealer final totals follow from DEALER_TOTALS
+    private static final int ROUNDS = 0;
+    private static final int WINS = 1;
+    private static final int LOSSES = 2;
+    private static final int PUSHES = 3;
+    private static final int NET = 4;          // net result in opening bets
+    private static final int DEALER_TOTALS = 5;
+    private static final int SLOTS = DEALER_TOTALS + RoundHistory.MAX_TOTAL + 1;
+
+    private final TableRules rules;
+    private final PlayerStrategy strategy;
+    private final LongFunction<? extends Shoe> shoes;
+    private final long seed;
+    private final Thread[] threads;
+    private final AtomicReferenceArray<long[]> published;
+
+    private volatile boolean cancelled;
+    private volatile Throwable failure;
+    private volatile long startNanos;
+
+    public LiveSimulation(TableRules rules, PlayerStrategy strategy, long seed, int workerCount) {
+        this(rules, strategy, Deck::new, seed, workerCount);
+    }
+
+    public LiveSimulation(TableRules rules, PlayerStrategy strategy, LongFunction<? extends Shoe> shoes,
+                          long seed, int workerCount) {
+        if (rules == null || strategy == null || shoes == null) {
+            throw new IllegalArgumentException("Rules/Strategy/Shoes cannot be null");
+        }
+        if (workerCount < 1) throw new IllegalArgumentException("Need at least one worker");
+
+        this.rules = rules;
+        this.strategy = strategy;
+        this.shoes = shoes;
+        this.seed = seed;
+        this.threads = new Thread[workerCount];
+        this.published = new AtomicReferenceArray<>(workerCount);
+        for (int i = 0; i < workerCount; i++) published.set(i, new long[SLOTS]);
+    }
+
+    // One worker per core but one, so the EDT always has a core to itself
+    public static int defaultWorkers() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    public TableRules rules() { return rules; }
+    public int workers()      { return threads.length; }
+
+    public synchronized void start() {
+        if (threads[0] != null) throw new IllegalStateException("Simulation already started");
+        startNanos = System.nanoTime();
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> work(index), "live-sim-" + i);
+            threads[i].setDaemon(true);
+            threads[i].setPriority(Thread.NORM_PRIORITY - 1);
+            threads[i].start();
+        }
+    }
+
+    // Asks every worker to stop at its next chunk boundary; does not wait
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // True once every worker thread has exited (also before start())
+    public synchronized boolean isTerminated() {
+        for (Thread t : threads) {
+            if (t != null && t.isAlive()) return false;
+        }
+        return true;
+    }
+
+    // Waits up to the given time for the workers to exit; returns isTerminated()
+    public boolean awaitTermination(long millis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + millis;
+        Thread[] started;
+        synchronized (this) {
+            started = threads.clone();
+        }
+        for (Thread t : started) {
+            if (t == null) continue;
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) break;
+            t.join(left);
+        }
+        return isTerminated();
+    }
+
+    // The error that stopped a worker, or null
+    public Throwable failure() {
+        return failure;
+    }
+
+    /** Sums the latest published totals of every worker. */
+    public Snapshot snapshot() {
+        long[] sum = new long[SLOTS];
+        for (int i = 0; i < threads.length; i++) {
+            long[] w = published.get(i);
+            for (int s = 0; s < SLOTS; s++) sum[s] += w[s];
+        }
+        long elapsed = startNanos == 0 ? 0 : System.nanoTime() - startNanos;
+        return new Snapshot(sum, elapsed);
+    }
+
+    private void work(int index) {
+        long[] totals = new long[SLOTS];
+        try {
+            RoundSimulator sim = new RoundSimulator(shoes.apply(seed + index), strategy, rules);
+            while (!cancelled) {
+                for (int r = 0; r < CHUNK_ROUNDS; r++) {
+                    byte outcome = sim.playRound();
+                    totals[WINS + outcome]++;
+                    totals[NET] += (long) sim.net();
+                    totals[DEALER_TOTALS + Math.min(sim.dealerTotal(), RoundHistory.MAX_TOTAL)]++;
+                }
+                totals[ROUNDS] += CHUNK_ROUNDS;
+                published.set(index, totals.clone());
+            }
+        } catch (Throwable t) {
+            failure = t;
+            cancelled = true;
+        }
+    }
+
+    /** Totals of every worker at one point of the run. */
+    public static final class Snapshot {
+
+        private final long[] totals;
+        private final long elapsedNanos;
+
+        Snapshot(long[] totals, long elapsedNanos) {
+            this.totals = totals;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long rounds()       { return totals[ROUNDS]; }
+        public long wins()         { return totals[WINS]; }
+        public long losses()       { return totals[LOSSES]; }
+        public long pushes()       { return totals[PUSHES]; }
+        public long elapsedNanos() { return elapsedNanos; }
+
+        public double winRate()  { return rate(wins()); }
+        public double lossRate() { return rate(losses()); }
+        public double pushRate() { return rate(pushes()); }
+
+        // Average net result per round, in opening bets
+        public double expectedValue() {
+            return rounds() == 0 ? 0.0 : (double) totals[NET] / rounds();
+        }
+
+        // Rounds whose dealer hand finished on this total (MAX_TOTAL counts everything above it)
+        public long dealerTotal(int total) {
+            if (total < 0 || total > RoundHistory.MAX_TOTAL) {
+                throw new IllegalArgumentException("Total must be in 0.." + RoundHistory.MAX_TOTAL);
+            }
+            return totals[DEALER_TOTALS + total];
+        }
+
+        // Average rounds per second since start() (use two snapshots for the current rate)
+        public double roundsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : rounds() * 1e9 / elapsedNanos;
+        }
+
+        private double rate(long count) {
+            return rounds() == 0 ? 0.0 : (double) count / rounds();
+        }
+    }
+}
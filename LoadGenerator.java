@@ -0,0 +1,286 @@
+package sim;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.consumer.RecordingStream;
+
+import controller.HeadlessTable;
+import controller.TableSnapshot;
+
+/**
+ * Capacity test: many simulated players, each at its own in-process table.
+ *
+ * Every client is a thread driving a HeadlessTable: a virtual thread on
+ * JDK 21 and later, a platform thread on older runtimes (which caps how many
+ * clients a machine can hold, see clientExecutor()). It thinks for a
+ * random time (uniform around the mean), then deals or plays one action
+ * by basic strategy (hit, stand, double or split; insurance is declined).
+ * The player starts thinking only once the last action has returned, as a
+ * real player would.
+ *
+ * Latency is measured from when the action should have been sent: the last
+ * completion plus the think time. The wait for a carrier thread after the
+ * sleep is therefore counted, not hidden, which is the part that grows
+ * under overload. Service time (the action alone) is kept separately.
+ *
+ * Each concurrency level runs for a fixed time. It reports throughput,
+ * latency quantiles, and the stop-the-world GC pauses during the run, as
+ * the count, the total, the share of wall time and the longest.
+ */
+public final class LoadGenerator {
+
+    private static final PlayerStrategy BASIC = PlayerStrategy.basic();
+
+    private final int clients;
+    private final long thinkNanos;
+    private final long durationNanos;
+    private final long seed;
+
+    public LoadGenerator(int clients, long thinkMillis, long durationMillis, long seed) {
+        if (clients < 1) throw new IllegalArgumentException("Need at least one client");
+        if (thinkMillis < 0) throw new IllegalArgumentException("Think time cannot be negative");
+        if (durationMillis < 1) throw new IllegalArgumentException("Duration must be positive");
+        this.clients = clients;
+        this.thinkNanos = thinkMillis * 1_000_000;
+        this.durationNanos = durationMillis * 1_000_000;
+        this.seed = seed;
+    }
+
+    /** Figures of one run. */
+    public static final class Result {
+
+        final int clients;
+        final double seconds;
+        final long actions;
+        final long rounds;
+        final LatencyHistogram response;
+        final LatencyHistogram service;
+        final long gcPauses;
+        final long gcPauseNanos;
+        final long gcMaxPauseNanos;
+
+        Result(int clients, double seconds, long actions, long rounds, LatencyHistogram response,
+               LatencyHistogram service, long gcPauses, long gcPauseNanos, long gcMaxPauseNanos) {
+            this.clients = clients;
+            this.seconds = seconds;
+            this.actions = actions;
+            this.rounds = rounds;
+            this.response = response;
+            this.service = service;
+            this.gcPauses = gcPauses;
+            this.gcPauseNanos = gcPauseNanos;
+            this.gcMaxPauseNanos = gcMaxPauseNanos;
+        }
+
+        public int clients()                 { return clients; }
+        public double actionsPerSecond()     { return actions / seconds; }
+        public double roundsPerSecond()      { return rounds / seconds; }
+        public LatencyHistogram response()   { return response; }
+        public LatencyHistogram service()    { return service; }
+        public long gcPauses()               { return gcPauses; }
+        public long gcMaxPauseNanos()        { return gcMaxPauseNanos; }
+
+        // Share of the run's wall time spent in stop-the-world pauses
+        public double gcPauseShare() {
+            return gcPauseNanos / (seconds * 1e9);
+        }
+
+        static String header() {
+            return String.format("%8s %10s %9s %9s %9s %9s %9s %9s %6s %7s %8s",
+                    "clients", "actions/s", "rounds/s", "p50 ms", "p99 ms", "p999 ms", "max ms",
+                    "svc p99", "GCs", "GC %", "GC max");
+        }
+
+        @Override
+        public String toString() {
+            long[] q = response.quantiles(0.50, 0.99, 0.999);
+            return String.format("%8d %10.0f %9.0f %9.3f %9.3f %9.3f %9.3f %9.3f %6d %6.2f%% %8.3f",
+                    clients, actionsPerSecond(), roundsPerSecond(), q[0] / 1e6, q[1] / 1e6, q[2] / 1e6,
+                    response.max() / 1e6, service.quantile(0.99) / 1e6, gcPauses, 100 * gcPauseShare(),
+                    gcMaxPauseNanos / 1e6);
+        }
+    }
+
+    public Result run() throws InterruptedException {
+        LatencyHistogram response = new LatencyHistogram();
+        LatencyHistogram service = new LatencyHistogram();
+        LongAdder actions = new LongAdder();
+        LongAdder rounds = new LongAdder();
+        // JFR takes a moment to start; not part of the measured run
+        PauseRecorder pauses = new PauseRecorder();
+        pauses.start();
+
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+        ExecutorService executor = clientExecutor();
+        try {
+            for (int i = 0; i < clients; i++) {
+                int id = i;
+                executor.submit(() -> {
+                    rounds.add(client(id, start, deadline, response, service, actions));
+                    return null;
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // Clients stop on their own at the deadline
+        while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+            // keep waiting
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pauses.stop();
+
+        return new Result(clients, seconds, actions.sum(), rounds.sum(), response, service,
+                pauses.count.get(), pauses.totalNanos.get(), pauses.maxNanos.get());
+    }
+
+    /**
+     * One thread per client: virtual threads where the runtime has them
+     * (JDK 21+), looked up reflectively so the tree still builds on JDK 17,
+     * else an unbounded pool of platform threads.
+     */
+    static ExecutorService clientExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    // One player: think, act, repeat until the deadline; returns the rounds it finished
+    private long client(int id, long start, long deadline, LatencyHistogram response,
+                        LatencyHistogram service, LongAdder actions) throws InterruptedException {
+        HeadlessTable table = new HeadlessTable("client-" + id, seed + id);
+        SplittableRandom rnd = new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (id + 1)));
+
+        // Spread the first actions over one think time so the clients do not start in lockstep
+        long intended = start + (thinkNanos == 0 ? 0 : rnd.nextLong(thinkNanos));
+        while (intended < deadline) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+
+            long t0 = System.nanoTime();
+            act(table);
+            long t1 = System.nanoTime();
+
+            response.record(Math.max(0, t1 - intended));
+            service.record(t1 - t0);
+            actions.increment();
+
+            intended = t1 + think(rnd);
+        }
+        return table.roundsPlayed();
+    }
+
+    // Basic strategy; insurance is declined by simply playing on
+    private static void act(HeadlessTable table) {
+        if (!table.canPlayerAct()) {
+            table.startRound();
+            return;
+        }
+        TableSnapshot s = table.snapshot();
+        int up = table.dealerUpcard();
+        if (s.canSplit() && BASIC.shouldSplit(table.pairValue(), up)) table.split();
+        else if (s.canDouble() && BASIC.shouldDouble(table.playerHard(), table.playerAces(), up)) table.doubleDown();
+        else if (BASIC.shouldHit(table.playerHard(), table.playerAces(), up)) table.hit();
+        else table.stand();
+    }
+
+    // Uniform between half and one and a half times the mean
+    private long think(SplittableRandom rnd) {
+        return thinkNanos == 0 ? 0 : thinkNanos / 2 + rnd.nextLong(thinkNanos);
+    }
+
+    /**
+     * Stop-the-world pauses of the collections during a run, from JFR's
+     * jdk.GarbageCollection events. Their sumOfPauses and longestPause are
+     * timed in ticks, so the sub-millisecond young pauses of a small heap
+     * count for what they took; the GC MXBean notifications only report whole
+     * milliseconds. Concurrent phases (G1 marking, ZGC and Shenandoah cycles)
+     * do not stop the clients and are not in those fields.
+     *
+     * JFR hands events over in batches about once a second, so stop() waits
+     * for the batches written after the run before closing the stream.
+     */
+    private static final class PauseRecorder {
+
+        private static final String EVENT = "jdk.GarbageCollection";
+
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong totalNanos = new AtomicLong();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        private final RecordingStream stream = new RecordingStream();
+        private final Object flushLock = new Object();
+        private long flushes;
+
+        // Collections that start after this are not part of the run (null while it is going)
+        private volatile Instant end;
+
+        void start() {
+            stream.enable(EVENT);
+            stream.onEvent(EVENT, e -> {
+                Instant cutoff = end;
+                if (cutoff != null && e.getStartTime().isAfter(cutoff)) return;
+                long nanos = e.getDuration("sumOfPauses").toNanos();
+                if (nanos == 0) return;
+                count.incrementAndGet();
+                totalNanos.addAndGet(nanos);
+                maxNanos.accumulateAndGet(e.getDuration("longestPause").toNanos(), Math::max);
+            });
+            stream.onFlush(() -> {
+                synchronized (flushLock) {
+                    flushes++;
+                    flushLock.notifyAll();
+                }
+            });
+            stream.startAsync();
+        }
+
+        /**
+         * The first batch handed over after the run may have been written
+         * just before it ended; the second one cannot have been, so every
+         * pause of the run has been seen once it arrives.
+         */
+        void stop() throws InterruptedException {
+            end = Instant.now();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            synchronized (flushLock) {
+                long target = flushes + 2;
+                long left;
+                while (flushes < target && (left = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(flushLock, left);
+                }
+            }
+            stream.close();
+        }
+    }
+
+    // java sim.LoadGenerator [clients,clients,...] [thinkMillis] [secondsPerLevel]
+    public static void main(String[] args) throws Exception {
+        String[] levels = (args.length > 0 ? args[0] : "100,1000,5000,20000").split(",");
+        long think = args.length > 1 ? Long.parseLong(args[1]) : 500;
+        long seconds = args.length > 2 ? Long.parseLong(args[2]) : 10;
+
+        System.out.printf("Think time %d ms (+-50%%), %d s per level, %d cores, max heap %d MB%n",
+                think, seconds, Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().maxMemory() >> 20);
+
+        // Warm-up so the first level is not measuring the JIT
+        new LoadGenerator(Integer.parseInt(levels[0].trim()), think, Math.min(seconds, 3) * 1000, 1).run();
+
+        System.out.println(Result.header());
+        for (String level : levels) {
+            System.gc();
+            Result r = new LoadGenerator(Integer.parseInt(level.trim()), think, seconds * 1000, 42).run();
+            System.out.println(r);
+        }
+    }
+}
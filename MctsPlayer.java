@@ -0,0 +1,216 @@
+package sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import model.Card;
+import model.Deck;
+import model.Player;
+import model.TableRules;
+
+/**
+ * Computer seat that chooses hit/stand with Monte Carlo search.
+ *
+ * Unlike ComputerPlayer's fixed "hit below 17" rule, each decision samples
+ * many possible continuations from the cards that are still unseen; card
+ * draws are chance events sampled from a forked TableState. Statistics are
+ * kept per decision state, keyed by (hard sum, holds an Ace), so every path
+ * that reaches the same state shares them: a transposition table rather
+ * than a tree. Search runs root-parallel on a fork/join pool: every worker
+ * fills its own table until the time budget runs out and the root
+ * statistics are summed at the end.
+ *
+ * Worker streams are split from one generator seeded with the table's seed,
+ * so a seat replays the same random choices for the same seed (the number
+ * of iterations still depends on how fast the workers run).
+ */
+public class MctsPlayer extends Player {
+
+    public static final long DEFAULT_BUDGET_NANOS = 5_000_000L;   // 5 ms per decision
+
+    private static final int HIT = 0;
+    private static final int STAND = 1;
+    private static final double EXPLORATION = 1.4;
+
+    // Decision states: hard sum 2..21, with/without an Ace
+    private static final int STATES = 22 * 2;
+
+    private final long budgetNanos;
+    private final int workers;
+    private final ForkJoinPool pool;
+    private final SplittableRandom seeds;
+
+    public MctsPlayer(String name, long seed) {
+        this(name, seed, DEFAULT_BUDGET_NANOS, ForkJoinPool.commonPool());
+    }
+
+    public MctsPlayer(String name, long seed, long budgetNanos, ForkJoinPool pool) {
+        super(name);
+        if (budgetNanos <= 0) throw new IllegalArgumentException("Budget must be positive");
+        if (pool == null) throw new IllegalArgumentException("Pool cannot be null");
+        this.budgetNanos = budgetNanos;
+        this.pool = pool;
+        this.workers = Math.max(1, pool.getParallelism());
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * Decides for this player's current hand.
+     * unseenCounts[v] = cards of value v not visible to the player (hole card included).
+     */
+    public boolean shouldHit(Card dealerUpcard, int[] unseenCounts) {
+        int hard = 0;
+        int aces = 0;
+        for (Card c : getCards()) {
+            hard += c.baseValue();
+            if (c.isAce()) aces++;
+        }
+        if (hard > 21) return false;
+        return search(TableState.of(unseenCounts, hard, aces, dealerUpcard.baseValue()));
+    }
+
+    /**
+     * This seat's search as a PlayerStrategy for RoundSimulator, reading
+     * the unseen cards from the deck being played. The hole card has already
+     * left the deck, so the search draws it from the shoe's remaining cards:
+     * one card off the true unseen composition. Only hit/stand is searched;
+     * doubles, splits and insurance keep the declining defaults.
+     * Not thread-safe, like the simulator it is given to.
+     */
+    public PlayerStrategy strategy(Deck deck) {
+        if (deck == null) throw new IllegalArgumentException("Deck cannot be null");
+        int[] counts = new int[11];
+        return (hard, aces, upcard) -> {
+            if (hard > 21) return false;
+            deck.valueCounts(counts);
+            return search(TableState.of(counts, hard, aces, upcard));
+        };
+    }
+
+    // True when the search prefers HIT from this state
+    public boolean search(TableState root) {
+        long deadline = System.nanoTime() + budgetNanos;
+
+        List<ForkJoinTask<double[]>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            Table table = new Table(seeds.split());
+            tasks.add(pool.submit(() -> table.run(root, deadline)));
+        }
+
+        // Root statistics: {hit visits, hit value, stand visits, stand value}
+        double[] total = new double[4];
+        for (ForkJoinTask<double[]> t : tasks) {
+            double[] r = t.join();
+            for (int i = 0; i < 4; i++) total[i] += r[i];
+        }
+
+        double hitMean = total[0] == 0 ? Double.NEGATIVE_INFINITY : total[1] / total[0];
+        double standMean = total[2] == 0 ? Double.NEGATIVE_INFINITY : total[3] / total[2];
+        return hitMean > standMean;
+    }
+
+    @Override
+    public boolean isComputer() {
+        return true;
+    }
+
+    // One worker's statistics (flat arrays indexed by state and action)
+    private static final class Table {
+
+        private final SplittableRandom rng;
+        private final long[] visits = new long[STATES * 2];
+        private final double[] value = new double[STATES * 2];
+        private final int[] path = new int[32];
+        private final TableState scratch = TableState.of(new int[11], 0, 0, 1);
+
+        Table(SplittableRandom rng) {
+            this.rng = rng;
+        }
+
+        double[] run(TableState root, long deadline) {
+            int rootKey = key(root);
+            int iterations = 0;
+
+            // Always finish at least a few iterations so a decision is never blind
+            while (iterations < 16 || System.nanoTime() < deadline) {
+                iterate(root);
+                iterations++;
+            }
+
+            int hit = rootKey * 2 + HIT;
+            int stand = rootKey * 2 + STAND;
+            return new double[] {visits[hit], value[hit], visits[stand], value[stand]};
+        }
+
+        private void iterate(TableState root) {
+            TableState s = scratch;
+            root.copyInto(s);
+
+            int depth = 0;
+            int result;
+            while (true) {
+                int node = key(s);
+                int action = select(node);
+                path[depth++] = node * 2 + action;
+
+                if (action == STAND) {
+                    result = s.settleAfterStand(rng);
+                    break;
+                }
+                s.playerHit(rng);
+                if (s.playerBust()) {
+                    result = -1;
+                    break;
+                }
+            }
+
+            for (int i = 0; i < depth; i++) {
+                visits[path[i]]++;
+                value[path[i]] += result;
+            }
+        }
+
+        // UCB1 over {HIT, STAND}; untried actions first
+        private int select(int node) {
+            long nHit = visits[node * 2 + HIT];
+            long nStand = visits[node * 2 + STAND];
+            if (nHit == 0) return HIT;
+            if (nStand == 0) return STAND;
+
+            double logN = Math.log(nHit + nStand);
+            double hit = value[node * 2 + HIT] / nHit + EXPLORATION * Math.sqrt(logN / nHit);
+            double stand = value[node * 2 + STAND] / nStand + EXPLORATION * Math.sqrt(logN / nStand);
+            return hit > stand ? HIT : STAND;
+        }
+
+        private static int key(TableState s) {
+            return s.playerHard() * 2 + (s.playerAces() > 0 ? 1 : 0);
+        }
+    }
+
+    // Head to head on the same shoe: java sim.MctsPlayer [rounds] [seed] [budgetMicros]
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        long budget = (args.length > 2 ? Long.parseLong(args[2]) : 1_000L) * 1_000;
+
+        Deck deck = new Deck(seed);
+        MctsPlayer mcts = new MctsPlayer("MCTS", seed, budget, ForkJoinPool.commonPool());
+        SimulationStats searched = play(new RoundSimulator(deck, mcts.strategy(deck), TableRules.HIT_STAND), rounds);
+        SimulationStats basic = play(new RoundSimulator(new Deck(seed), PlayerStrategy.basic(), TableRules.HIT_STAND),
+                rounds);
+
+        System.out.printf("%d rounds, %d us per decision%n", rounds, budget / 1_000);
+        System.out.println("MCTS:  " + searched);
+        System.out.println("Basic: " + basic);
+    }
+
+    private static SimulationStats play(RoundSimulator sim, int rounds) {
+        SimulationStats stats = new SimulationStats();
+        for (int r = 0; r < rounds; r++) stats.add(sim, sim.playRound());
+        return stats;
+    }
+}
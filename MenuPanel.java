@@ -30,11 +30,15 @@ public class MenuPanel extends JPanel {
         JButton startBtn = new JButton("Start New Game");
         JButton rulesBtn = new JButton("Rules / Instructions");
         JButton scoresBtn = new JButton("High Scores");
+        JButton replayBtn = new JButton("Replay Last Game");
+        JButton simulateBtn = new JButton("Simulate");
         JButton exitBtn = new JButton("Exit");
 
         startBtn.addActionListener(e -> controller.startNewGame());
         rulesBtn.addActionListener(e -> controller.showRulesDialog());
         scoresBtn.addActionListener(e -> controller.showHighScoresDialog());
+        replayBtn.addActionListener(e -> controller.showReplay());
+        simulateBtn.addActionListener(e -> controller.showSimulation());
         exitBtn.addActionListener(e -> controller.exit());
 
         // ---- Button layout ----
@@ -48,6 +52,12 @@ public class MenuPanel extends JPanel {
         add(scoresBtn, c);
 
         c.gridy = 3;
+        add(replayBtn, c);
+
+        c.gridy = 4;
+        add(simulateBtn, c);
+
+        c.gridy = 5;
         add(exitBtn, c);
 
         // ---- High scores area ----
@@ -61,7 +71,7 @@ public class MenuPanel extends JPanel {
         JScrollPane scrollPane = new JScrollPane(topScoresArea);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
 
-        c.gridy = 4;
+        c.gridy = 6;
         c.fill = GridBagConstraints.BOTH;
         add(scrollPane, c);
     }
@@ -0,0 +1,54 @@
+package betting;
+
+import model.HandArena;
+import model.TableRules;
+import sim.RoundSimulator;
+
+/**
+ * How the bets of a settled round are paid.
+ *
+ * A win pays even money on the hand's stake (twice the bet once doubled), a
+ * winning natural pays the blackjack ratio, a push returns the stake, and
+ * insurance is settled as TableRules defines it. Payouts are counted in half
+ * units, so 3:2 on a one-unit bet pays 1.5 exactly; ratios that do not fit
+ * in halves (6:5 on an odd bet) are rounded down, as a table pays in chips.
+ */
+public final class PayoutRules {
+
+    public static final PayoutRules THREE_TO_TWO = new PayoutRules(3, 2);
+    public static final PayoutRules SIX_TO_FIVE = new PayoutRules(6, 5);
+    public static final PayoutRules EVEN_MONEY = new PayoutRules(1, 1);
+
+    private final int blackjackNumerator;
+    private final int blackjackDenominator;
+
+    public PayoutRules(int blackjackNumerator, int blackjackDenominator) {
+        if (blackjackNumerator < 1 || blackjackDenominator < 1) {
+            throw new IllegalArgumentException("Blackjack payout must be a positive ratio");
+        }
+        this.blackjackNumerator = blackjackNumerator;
+        this.blackjackDenominator = blackjackDenominator;
+    }
+
+    // Net half units won (> 0) or lost (< 0) over every hand of the simulator's last round
+    public long netHalves(long bet, RoundSimulator sim) {
+        if (bet < 1) throw new IllegalArgumentException("Bet must be at least 1 unit");
+        HandArena hands = sim.hands();
+        long halves = 0;
+        for (int h = 0; h < hands.handCount(); h++) {
+            int result = sim.handResult(h);
+            if (result > 0 && hands.isNatural(h)) {
+                halves += 2 * bet * blackjackNumerator / blackjackDenominator;
+            } else {
+                halves += 2 * bet * hands.bet(h) * result;
+            }
+        }
+        if (sim.insuranceTaken()) halves += 2 * bet * TableRules.insuranceResult(sim.dealerBlackjack());
+        return halves;
+    }
+
+    @Override
+    public String toString() {
+        return blackjackNumerator + ":" + blackjackDenominator;
+    }
+}
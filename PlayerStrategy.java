@@ -0,0 +1,44 @@
+package sim;
+
+/**
+ * Hit/stand policy used by the headless simulator.
+ *
+ * Hands are described by their hard sum (every Ace counted as 1) and the
+ * number of Aces, which is all Player.bestTotal() needs. Doubling, splitting
+ * and insurance are only asked about when the table rules offer them and
+ * are declined unless a strategy says otherwise.
+ */
+@FunctionalInterface
+public interface PlayerStrategy {
+
+    boolean shouldHit(int hardSum, int aceCount, int dealerUpcard);
+
+    // Asked for two-card hands only
+    default boolean shouldDouble(int hardSum, int aceCount, int dealerUpcard) {
+        return false;
+    }
+
+    // pairValue is the value of each card of the pair (1 = Aces)
+    default boolean shouldSplit(int pairValue, int dealerUpcard) {
+        return false;
+    }
+
+    // Asked once per round, before play, when the dealer shows an Ace
+    default boolean takeInsurance(int hardSum, int aceCount) {
+        return false;
+    }
+
+    // Same rule ComputerPlayer uses: hit below 17, stand otherwise
+    static PlayerStrategy dealerRule() {
+        return standAt(17);
+    }
+
+    // Multi-deck basic strategy for the STANDARD rules (never takes insurance)
+    static PlayerStrategy basic() {
+        return BasicStrategy.INSTANCE;
+    }
+
+    static PlayerStrategy standAt(int total) {
+        return (hard, aces, up) -> RoundSimulator.bestTotal(hard, aces) < total;
+    }
+}
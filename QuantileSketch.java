@@ -0,0 +1,161 @@
+package betting;
+
+/**
+ * Mergeable streaming quantile sketch with relative error (DDSketch style).
+ *
+ * A value x > 0 goes into bucket ceil(log_gamma(x)), with
+ * gamma = (1 + alpha) / (1 - alpha); every value in a bucket is within
+ * alpha (relative) of the bucket's representative, so any quantile is
+ * answered with that relative accuracy. Negative values use a mirrored set
+ * of buckets, zero has its own counter. Two sketches with the same alpha are
+ * merged by adding bucket counts, so parallel workers keep one sketch each
+ * and combine them at the end. Memory is bounded by maxBuckets per sign: if
+ * the range grows past it, the buckets closest to zero are folded together.
+ */
+public final class QuantileSketch {
+
+    public static final double DEFAULT_ALPHA = 0.01;
+    public static final int DEFAULT_MAX_BUCKETS = 2048;
+
+    private final double alpha;
+    private final double gamma;
+    private final double logGamma;
+
+    private final Store positive;
+    private final Store negative;
+    private long zeroCount;
+
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch() {
+        this(DEFAULT_ALPHA, DEFAULT_MAX_BUCKETS);
+    }
+
+    public QuantileSketch(double alpha, int maxBuckets) {
+        if (!(alpha > 0.0 && alpha < 1.0)) throw new IllegalArgumentException("Alpha must be in (0, 1)");
+        if (maxBuckets < 16) throw new IllegalArgumentException("Need at least 16 buckets");
+        this.alpha = alpha;
+        this.gamma = (1 + alpha) / (1 - alpha);
+        this.logGamma = Math.log(gamma);
+        this.positive = new Store(maxBuckets);
+        this.negative = new Store(maxBuckets);
+    }
+
+    public double alpha() { return alpha; }
+    public long count()   { return count; }
+    public double min()   { return count == 0 ? Double.NaN : min; }
+    public double max()   { return count == 0 ? Double.NaN : max; }
+    public double mean()  { return count == 0 ? Double.NaN : sum / count; }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) throw new IllegalArgumentException("Value cannot be NaN");
+        if (value > 0) positive.add(bucket(value), 1);
+        else if (value < 0) negative.add(bucket(-value), 1);
+        else zeroCount++;
+
+        count++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    // Adds the other sketch's counts into this one; both must use the same alpha
+    public void merge(QuantileSketch other) {
+        if (other.gamma != gamma) throw new IllegalArgumentException("Sketches use different accuracies");
+        positive.addAll(other.positive);
+        negative.addAll(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    // Value at quantile q (0 = min, 1 = max), within alpha relative error
+    public double quantile(double q) {
+        if (!(q >= 0.0 && q <= 1.0)) throw new IllegalArgumentException("Quantile must be in [0, 1]");
+        if (count == 0) return Double.NaN;
+        if (q == 0.0) return min;
+        if (q == 1.0) return max;
+
+        long rank = (long) (q * (count - 1));
+
+        // Negative buckets from the most negative value up
+        long seen = 0;
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            seen += negative.counts[i];
+            if (seen > rank) return clamp(-value(negative.offset + i));
+        }
+        seen += zeroCount;
+        if (seen > rank) return 0.0;
+        for (int i = 0; i < positive.counts.length; i++) {
+            seen += positive.counts[i];
+            if (seen > rank) return clamp(value(positive.offset + i));
+        }
+        return max;
+    }
+
+    private double clamp(double v) {
+        return Math.max(min, Math.min(max, v));
+    }
+
+    private int bucket(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / logGamma);
+    }
+
+    // Representative of a bucket: equally close (relatively) to both of its bounds
+    private double value(int bucket) {
+        return 2.0 * Math.pow(gamma, bucket) / (gamma + 1);
+    }
+
+    /**
+     * Dense bucket counts for one sign: counts[i] is bucket offset + i. When
+     * the span would exceed the limit, the lowest buckets are collapsed into
+     * the lowest one kept.
+     */
+    private static final class Store {
+
+        private final int limit;
+        private long[] counts = new long[0];
+        private int offset;
+
+        Store(int limit) {
+            this.limit = limit;
+        }
+
+        void add(int bucket, long n) {
+            if (counts.length == 0) {
+                counts = new long[8];
+                offset = bucket - 4;
+            }
+            if (bucket >= offset + counts.length || (bucket < offset && counts.length < limit)) {
+                resize(Math.min(bucket, offset), Math.max(bucket, offset + counts.length - 1));
+            }
+            // The range may have been capped: anything below the first bucket lands in it
+            counts[Math.max(0, bucket - offset)] += n;
+        }
+
+        void addAll(Store other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) add(other.offset + i, other.counts[i]);
+            }
+        }
+
+        // Grows to cover [lo, hi], keeping at most limit buckets (dropping the low end)
+        private void resize(int lo, int hi) {
+            if (hi - lo + 1 > limit) lo = hi - limit + 1;
+            int span = Math.min(limit, Math.max(hi - lo + 1, counts.length * 2));
+            long[] next = new long[span];
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) continue;
+                int j = Math.max(0, offset + i - lo);
+                if (j < span) next[j] += counts[i];
+            }
+            counts = next;
+            offset = lo;
+        }
+    }
+}
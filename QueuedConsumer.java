@@ -0,0 +1,99 @@
+package event;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Puts a slow consumer (disk, network) behind an unbounded queue.
+ *
+ * The bus thread only copies each event and queues it, which keeps it far
+ * ahead of the ring's wrap point even while the delegate's I/O stalls; the
+ * delegate runs on a thread of its own and catches up later. Memory, not
+ * the producer, absorbs the backlog. A drop reported by the bus (only
+ * possible if this thread is starved of CPU for a whole ring) is passed on
+ * in order, between the events around it.
+ */
+public final class QueuedConsumer implements GameEventConsumer, AutoCloseable {
+
+    // One queued item: an event, a drop of `dropped` events, or the end of the stream
+    private static final class Item {
+        final GameEvent event;
+        final long sequence;
+        final long dropped;
+
+        Item(GameEvent event, long sequence, long dropped) {
+            this.event = event;
+            this.sequence = sequence;
+            this.dropped = dropped;
+        }
+    }
+
+    private static final Item END = new Item(null, -1, 0);
+
+    private final GameEventConsumer delegate;
+    private final LinkedBlockingQueue<Item> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+
+    public QueuedConsumer(String name, GameEventConsumer delegate) {
+        if (delegate == null) throw new IllegalArgumentException("Consumer cannot be null");
+        this.delegate = delegate;
+        this.thread = new Thread(this::drain, "events-" + name + "-queue");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void onEvent(GameEvent event, long sequence, boolean endOfBatch) {
+        GameEvent copy = new GameEvent();
+        event.copyInto(copy);
+        queue.add(new Item(copy, sequence, 0));
+    }
+
+    @Override
+    public void onDropped(long count) {
+        queue.add(new Item(null, -1, count));
+    }
+
+    // Backlog not yet handed to the delegate
+    public int pending() {
+        return queue.size();
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                Item item = queue.take();
+                if (item == END) return;
+                if (item.event == null) {
+                    delegate.onDropped(item.dropped);
+                    continue;
+                }
+                try {
+                    // A batch ends where the queue runs dry, the natural point to flush
+                    delegate.onEvent(item.event, item.sequence, queue.isEmpty());
+                } catch (Exception e) {
+                    // Same as on the bus: a failing consumer keeps receiving events
+                }
+            }
+        } catch (InterruptedException e) {
+            // daemon thread told to give up; whatever is queued is lost
+        }
+    }
+
+    /**
+     * Hands over everything queued so far, then stops the thread. Call it
+     * after GameEventBus.halt(), so nothing is queued behind the end marker.
+     */
+    @Override
+    public void close() {
+        queue.add(END);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+}
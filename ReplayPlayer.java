@@ -0,0 +1,162 @@
+package ui;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.AbstractAction;
+import javax.swing.ActionMap;
+import javax.swing.InputMap;
+import javax.swing.JComponent;
+import javax.swing.KeyStroke;
+import javax.swing.Timer;
+
+import controller.GameController;
+import controller.TableSnapshot;
+import history.ReplayState;
+import history.SessionReplay;
+import model.Card;
+
+/**
+ * Plays a recorded session on a GamePanel.
+ *
+ * One record is applied per timer tick; the speed multiplier scales the
+ * tick delay. While playing, Left/Right jump one round back/forward and
+ * Up/Down double/halve the speed.
+ */
+public class ReplayPlayer {
+
+    private static final int BASE_DELAY_MS = 550;
+    private static final double MIN_SPEED = 0.25;
+    private static final double MAX_SPEED = 64.0;
+
+    private static final String[] KEYS = {"REPLAY_BACK", "REPLAY_FORWARD", "REPLAY_FASTER", "REPLAY_SLOWER"};
+
+    private final GamePanel panel;
+    private final SessionReplay replay;
+    private final Timer timer;
+    private double speed = 1.0;
+
+    public ReplayPlayer(GamePanel panel, SessionReplay replay) {
+        this.panel = panel;
+        this.replay = replay;
+        this.timer = new Timer(BASE_DELAY_MS, e -> tick());
+        this.timer.setCoalesce(true);
+    }
+
+    public void start() {
+        bindKeys();
+        render();
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+        unbindKeys();
+        try {
+            replay.close();
+        } catch (IOException e) { }
+    }
+
+    public double speed() {
+        return speed;
+    }
+
+    public void setSpeed(double s) {
+        speed = Math.max(MIN_SPEED, Math.min(MAX_SPEED, s));
+        timer.setDelay((int) Math.max(1, BASE_DELAY_MS / speed));
+    }
+
+    public void seekToRound(int round) {
+        try {
+            replay.seekToRound(Math.max(replay.firstRound(), round));
+        } catch (IOException e) {
+            timer.stop();
+        }
+        render();
+        if (!timer.isRunning()) timer.start();
+    }
+
+    private void tick() {
+        try {
+            if (!replay.step()) {
+                timer.stop();
+                return;
+            }
+        } catch (IOException e) {
+            timer.stop();
+            return;
+        }
+        render();
+    }
+
+    private void render() {
+        panel.render(toSnapshot(replay.state()));
+    }
+
+    private static TableSnapshot toSnapshot(ReplayState s) {
+        List<List<String>> hands = new ArrayList<>();
+        List<Integer> bets = new ArrayList<>();
+        for (int h = 0; h < s.handCount(); h++) {
+            List<String> cards = new ArrayList<>();
+            for (int i = 0; i < s.playerCount(h); i++) {
+                cards.add(Card.fromCode(s.playerCard(h, i)).resolvedImagePath());
+            }
+            hands.add(cards);
+            bets.add(s.handBet(h));
+        }
+        if (hands.isEmpty()) {
+            hands.add(List.of());
+            bets.add(1);
+        }
+
+        // Same hole-card rule as the live table: hidden while the player is deciding
+        boolean hidden = s.playerTurn() && !s.roundOver();
+        List<String> dealer = new ArrayList<>();
+        for (int i = 0; i < s.dealerCount(); i++) {
+            if (i == 1 && hidden) dealer.add("/images/cards/back.jpg");
+            else dealer.add(Card.fromCode(s.dealerCard(i)).resolvedImagePath());
+        }
+
+        return new TableSnapshot(
+                s.round(), GameController.MAX_ROUNDS, s.remaining(),
+                s.playerName(), s.playerScore(), s.dealerScore(),
+                s.playerTurn(), s.roundOver(), s.summary(),
+                hands, bets, s.activeHand(), dealer, 0, true
+        );
+    }
+
+    private void bindKeys() {
+        InputMap im = panel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        ActionMap am = panel.getActionMap();
+
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_LEFT, 0), KEYS[0]);
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_RIGHT, 0), KEYS[1]);
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0), KEYS[2]);
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0), KEYS[3]);
+
+        am.put(KEYS[0], action(() -> seekToRound(replay.state().round() - 1)));
+        am.put(KEYS[1], action(() -> seekToRound(replay.state().round() + 1)));
+        am.put(KEYS[2], action(() -> setSpeed(speed * 2)));
+        am.put(KEYS[3], action(() -> setSpeed(speed / 2)));
+    }
+
+    private void unbindKeys() {
+        panel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).remove(KeyStroke.getKeyStroke(KeyEvent.VK_LEFT, 0));
+        panel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).remove(KeyStroke.getKeyStroke(KeyEvent.VK_RIGHT, 0));
+        panel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).remove(KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0));
+        panel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).remove(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0));
+        for (String k : KEYS) panel.getActionMap().remove(k);
+    }
+
+    private static AbstractAction action(Runnable r) {
+        return new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                r.run();
+            }
+        };
+    }
+}
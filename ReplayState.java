@@ -0,0 +1,114 @@
+package history;
+
+import event.GameEvent;
+import model.HandArena;
+
+/**
+ * Table state rebuilt while reading a recorded session.
+ */
+public final class ReplayState {
+
+    private int round;
+    private int playerScore;
+    private int dealerScore;
+    private int remaining;
+    private String playerName = "Player";
+    private String summary = "";
+    private boolean playerTurn;
+    private boolean roundOver;
+    private boolean gameOver;
+
+    // The player's hands (several after a split); the active one is the last to get a card
+    private final HandArena playerHands = new HandArena();
+    private int activeHand;
+    private final byte[] dealerCards = new byte[RoundRecord.MAX_CARDS];
+    private int dealerCount;
+
+    // Shoe order from the last keyframe, bottom to top
+    private final byte[] shoe = new byte[GameEvent.MAX_CARDS];
+    private int shoeCount;
+
+    void startRound(int round, int playerScore, int dealerScore, int remaining) {
+        this.round = round;
+        this.playerScore = playerScore;
+        this.dealerScore = dealerScore;
+        this.remaining = remaining;
+        this.summary = "";
+        this.playerTurn = true;
+        this.roundOver = false;
+        this.gameOver = false;
+        this.playerHands.clear();
+        this.activeHand = 0;
+        this.dealerCount = 0;
+    }
+
+    void setPlayerName(String name) {
+        if (name != null && !name.isEmpty()) playerName = name;
+    }
+
+    void setShoe(byte[] codes, int count) {
+        System.arraycopy(codes, 0, shoe, 0, count);
+        shoeCount = count;
+    }
+
+    void addCard(int seat, int code) {
+        if (!GameEvent.isPlayerSeat(seat)) {
+            dealerCards[dealerCount++] = (byte) code;
+            return;
+        }
+        int hand = GameEvent.handOfSeat(seat);
+        while (playerHands.handCount() <= hand) playerHands.open(1);
+        playerHands.add(hand, code);
+        activeHand = hand;
+    }
+
+    void playerSplit(int seat) {
+        playerHands.split(GameEvent.handOfSeat(seat));
+    }
+
+    void playerDoubled(int seat) {
+        playerHands.doubleBet(GameEvent.handOfSeat(seat));
+    }
+
+    void cardDrawn(int seat, int code) {
+        addCard(seat, code);
+        if (remaining > 0) remaining--;
+    }
+
+    void playerStood() {
+        playerTurn = false;
+    }
+
+    void roundSettled(int playerScore, int dealerScore, String summary) {
+        this.playerScore = playerScore;
+        this.dealerScore = dealerScore;
+        this.summary = summary;
+        this.playerTurn = false;
+        this.roundOver = true;
+    }
+
+    void gameEnded(int playerScore, int dealerScore) {
+        this.playerScore = playerScore;
+        this.dealerScore = dealerScore;
+        this.gameOver = true;
+    }
+
+    public int round()             { return round; }
+    public int playerScore()       { return playerScore; }
+    public int dealerScore()       { return dealerScore; }
+    public int remaining()         { return remaining; }
+    public String playerName()     { return playerName; }
+    public String summary()        { return summary; }
+    public boolean playerTurn()    { return playerTurn; }
+    public boolean roundOver()     { return roundOver; }
+    public boolean gameOver()      { return gameOver; }
+    public int handCount()         { return playerHands.handCount(); }
+    public int activeHand()        { return activeHand; }
+    public int handBet(int hand)   { return playerHands.bet(hand); }
+    public int playerCount(int hand)        { return playerHands.cardCount(hand); }
+    public int playerCard(int hand, int i)  { return playerHands.code(hand, i); }
+    public int dealerCount()       { return dealerCount; }
+    public int dealerCard(int i)   { return dealerCards[i]; }
+    public int shoeCount()         { return shoeCount; }
+    public int shoeCard(int i)     { return shoe[i]; }
+}
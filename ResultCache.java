@@ -0,0 +1,121 @@
+package sim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * On-disk cache of experiment results, addressed by content.
+ *
+ * The key is the SHA-256 of the code version, the binary config and the
+ * seed range. The code version is itself a hash of the compiled classes
+ * that decide how a round is played, so changing the simulation logic
+ * invalidates every entry without anyone bumping a version number by hand.
+ * Entries are written to a temp file and renamed, so a crash never leaves a
+ * half-written result behind.
+ */
+public final class ResultCache {
+
+    static final int MAGIC = 0x424A5243;   // "BJRC"
+
+    // Classes whose bytecode determines the result of a simulation
+    private static final String[] SIMULATION_CLASSES = {
+            "model/Card", "model/Shoe", "model/Deck", "model/ShoeRandom", "model/HandArena", "model/TableRules",
+            "sim/CompositionShoe", "sim/RoundSimulator", "sim/PlayerStrategy", "sim/SimulationConfig",
+            "sim/SimulationStats"
+    };
+
+    private static volatile String codeVersion;
+
+    private final Path dir;
+
+    public ResultCache(Path dir) throws IOException {
+        this.dir = Files.createDirectories(dir);
+    }
+
+    // Hash of the simulation classes' bytecode (computed once per JVM)
+    public static String codeVersion() {
+        String v = codeVersion;
+        if (v != null) return v;
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            ClassLoader loader = ResultCache.class.getClassLoader();
+            for (String name : SIMULATION_CLASSES) {
+                try (InputStream in = loader.getResourceAsStream(name + ".class")) {
+                    if (in == null) throw new IOException("Class file not found: " + name);
+                    md.update(name.getBytes(StandardCharsets.UTF_8));
+                    md.update(in.readAllBytes());
+                }
+            }
+            v = HexFormat.of().formatHex(md.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        codeVersion = v;
+        return v;
+    }
+
+    public static String key(SimulationConfig config, long firstSeed, long seedCount) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(codeVersion());
+            config.write(out);
+            out.writeLong(firstSeed);
+            out.writeLong(seedCount);
+            out.flush();
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes.toByteArray()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Cached stats for the key, or null if there are none (or the entry is unreadable)
+    public SimulationStats get(String key) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file(key))))) {
+            if (in.readInt() != MAGIC || !in.readUTF().equals(key)) return null;
+            return SimulationStats.read(in);
+        } catch (IOException e) {
+            return null;   // missing or damaged: a miss, overwritten when recomputed
+        }
+    }
+
+    public void put(String key, SimulationStats stats) throws IOException {
+        Path target = file(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), key, ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                out.writeInt(MAGIC);
+                out.writeUTF(key);
+                stats.write(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Two-level layout (ab/abcdef...) keeps directories small for big grids
+    private Path file(String key) {
+        return dir.resolve(key.substring(0, 2)).resolve(key + ".stats");
+    }
+}
@@ -0,0 +1,389 @@
+package sim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import model.Deck;
+
+/**
+ * Long in-process simulation that can be checkpointed, paused and resumed.
+ *
+ * The seed range is split into one fixed slice per worker thread. A worker's
+ * whole state is its position (next seed, round within that seed), its
+ * shoe (order, discard tray and RNG state, see Deck.writeState) and its
+ * stats. Checkpoints never stop the workers: the checkpointer bumps a
+ * volatile epoch, each worker serializes its own state into a byte[] at its
+ * next round boundary and carries on, and the checkpointer writes the
+ * collected snapshots to a temp file and renames it over the old one.
+ *
+ * Workers are independent, so the snapshots do not have to be taken at the
+ * same instant: each worker resumed from its own snapshot replays exactly
+ * the rounds it would have played, and the final stats are identical to an
+ * uninterrupted run.
+ */
+public final class ResumableSimulation {
+
+    static final int MAGIC = 0x424A434B;   // "BJCK"
+    static final int VERSION = 1;
+
+    public static final long DEFAULT_CHECKPOINT_MILLIS = 30_000;
+
+    private final SimulationConfig config;
+    private final long fromSeed;
+    private final long toSeed;
+    private final Worker[] workers;
+
+    // Latest snapshot of each worker, and the epoch it was taken for
+    private final AtomicReferenceArray<byte[]> snapshots;
+    private final AtomicLongArray snapshotEpochs;
+    private volatile long requestedEpoch;
+
+    // Notified whenever a worker publishes a snapshot or exits; the checkpointer waits on it
+    private final Object snapshotLock = new Object();
+
+    private volatile boolean paused;
+    private volatile boolean stopping;
+    private final Object pauseLock = new Object();
+
+    public ResumableSimulation(SimulationConfig config, long fromSeed, long toSeed, int workerCount) {
+        if (config == null) throw new IllegalArgumentException("Config cannot be null");
+        if (toSeed <= fromSeed) throw new IllegalArgumentException("Seed range is empty");
+        if (workerCount < 1) throw new IllegalArgumentException("Need at least one worker");
+        // A worker's shoe is saved with Deck.writeState; a CompositionShoe's RNG cannot be saved
+        if (config.shoe() != SimulationConfig.ShoeKind.DECK) {
+            throw new IllegalArgumentException("Checkpointed runs need a DECK shoe, not " + config.shoe());
+        }
+
+        this.config = config;
+        this.fromSeed = fromSeed;
+        this.toSeed = toSeed;
+        this.workers = new Worker[workerCount];
+        this.snapshots = new AtomicReferenceArray<>(workerCount);
+        this.snapshotEpochs = new AtomicLongArray(workerCount);
+
+        long span = toSeed - fromSeed;
+        for (int i = 0; i < workerCount; i++) {
+            long from = fromSeed + span * i / workerCount;
+            long to = fromSeed + span * (i + 1) / workerCount;
+            workers[i] = new Worker(i, from, to);
+        }
+    }
+
+    public SimulationConfig config() { return config; }
+
+    // Seeds fully played so far (approximate while running)
+    public long seedsDone() {
+        long done = 0;
+        for (Worker w : workers) done += w.nextSeed - w.from;
+        return done;
+    }
+
+    public long seedCount() {
+        return toSeed - fromSeed;
+    }
+
+    public boolean isFinished() {
+        for (Worker w : workers) if (w.nextSeed < w.to) return false;
+        return true;
+    }
+
+    // -------- Control (any thread) --------
+
+    public void pause() {
+        paused = true;
+    }
+
+    public void resume() {
+        synchronized (pauseLock) {
+            paused = false;
+            pauseLock.notifyAll();
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    // Makes run() return at the next round boundary (after a final checkpoint)
+    public void stop() {
+        stopping = true;
+        resume();
+    }
+
+    // -------- Running --------
+
+    /**
+     * Runs the workers until every seed is played or stop() is called,
+     * checkpointing to the file (if not null) every interval and once at the
+     * end. Returns the merged stats, which are only complete when isFinished().
+     */
+    public SimulationStats run(Path checkpoint, long checkpointMillis) throws IOException, InterruptedException {
+        Thread[] threads = new Thread[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            threads[i] = new Thread(workers[i], "sim-worker-" + i);
+            threads[i].start();
+        }
+
+        long nextCheckpoint = System.currentTimeMillis() + checkpointMillis;
+        for (Thread t : threads) {
+            while (t.isAlive()) {
+                t.join(200);
+                if (checkpoint != null && System.currentTimeMillis() >= nextCheckpoint) {
+                    checkpoint(checkpoint);
+                    nextCheckpoint = System.currentTimeMillis() + checkpointMillis;
+                }
+            }
+        }
+        for (Worker w : workers) {
+            if (w.failure != null) throw new IOException("Worker " + w.index + " failed", w.failure);
+        }
+
+        if (checkpoint != null) checkpoint(checkpoint);
+        return result();
+    }
+
+    public SimulationStats result() {
+        SimulationStats total = new SimulationStats();
+        for (Worker w : workers) total.merge(w.stats);
+        return total;
+    }
+
+    /**
+     * Collects a snapshot from every worker and writes them atomically. Live
+     * workers answer at their next round boundary (paused ones are woken up
+     * to answer); a worker whose thread has exited no longer changes, so it
+     * is snapshotted from here.
+     */
+    public synchronized void checkpoint(Path file) throws IOException, InterruptedException {
+        long epoch = ++requestedEpoch;
+        synchronized (pauseLock) {
+            pauseLock.notifyAll();
+        }
+        for (int i = 0; i < workers.length; i++) {
+            Worker w = workers[i];
+            synchronized (snapshotLock) {
+                while (snapshotEpochs.get(i) < epoch && !w.exited) snapshotLock.wait();
+            }
+            if (w.failure != null) throw new IOException("Worker " + i + " failed", w.failure);
+            if (snapshotEpochs.get(i) < epoch) w.publish(epoch);
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream os = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            config.write(out);
+            out.writeLong(fromSeed);
+            out.writeLong(toSeed);
+            out.writeInt(workers.length);
+            for (int i = 0; i < workers.length; i++) {
+                byte[] b = snapshots.get(i);
+                out.writeInt(b.length);
+                out.write(b);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Rebuilds a simulation from a checkpoint; run() then continues where it stopped
+    public static ResumableSimulation load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a simulation checkpoint: " + file);
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("Unsupported checkpoint version " + version);
+
+            SimulationConfig config = SimulationConfig.read(in);
+            long from = in.readLong();
+            long to = in.readLong();
+            int count = in.readInt();
+            ResumableSimulation sim = new ResumableSimulation(config, from, to, count);
+            for (int i = 0; i < count; i++) {
+                byte[] b = new byte[in.readInt()];
+                in.readFully(b);
+                sim.workers[i].restore(b);
+            }
+            return sim;
+        }
+    }
+
+    // -------- Workers --------
+
+    private final class Worker implements Runnable {
+
+        final int index;
+        final long from;
+        final long to;
+
+        volatile long nextSeed;
+        volatile boolean exited;      // thread has returned (done, stopped or failed)
+        Throwable failure;
+
+        // Position inside nextSeed's game; deck is null between seeds
+        int round;
+        Deck deck;
+        RoundSimulator sim;
+        SimulationStats stats = new SimulationStats();
+
+        private long seenEpoch;
+
+        Worker(int index, long from, long to) {
+            this.index = index;
+            this.from = from;
+            this.to = to;
+            this.nextSeed = from;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (nextSeed < to) {
+                    if (deck == null) {
+                        deck = config.newDeck(nextSeed);
+                        sim = config.newSimulator(deck);
+                        round = 0;
+                    }
+                    while (round < config.roundsPerSeed()) {
+                        if (requestedEpoch != seenEpoch) publish(requestedEpoch);
+                        if (paused || stopping) {
+                            if (!waitWhilePaused()) return;
+                        }
+                        stats.add(sim, sim.playRound());
+                        round++;
+                    }
+                    deck = null;
+                    sim = null;
+                    nextSeed++;
+                }
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                exited = true;
+                synchronized (snapshotLock) {
+                    snapshotLock.notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Blocks while paused (still answering checkpoints); returns false if
+         * the run is being stopped. The epoch is checked under pauseLock before
+         * every wait, so a checkpoint requested just before the worker got here
+         * is answered instead of sleeping through its notify.
+         */
+        private boolean waitWhilePaused() throws InterruptedException {
+            synchronized (pauseLock) {
+                while (paused && !stopping) {
+                    if (requestedEpoch != seenEpoch) publish(requestedEpoch);
+                    else pauseLock.wait();
+                }
+            }
+            return !stopping;
+        }
+
+        // Serializes this worker's state; called by the worker itself, or by the checkpointer when the worker is idle
+        synchronized void publish(long epoch) {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeLong(nextSeed);
+                out.writeInt(round);
+                out.writeBoolean(deck != null);
+                if (deck != null) deck.writeState(out);
+                stats.write(out);
+                out.flush();
+                snapshots.set(index, bytes.toByteArray());
+                snapshotEpochs.set(index, epoch);
+                seenEpoch = epoch;
+                synchronized (snapshotLock) {
+                    snapshotLock.notifyAll();
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not snapshot worker " + index, e);
+            }
+        }
+
+        void restore(byte[] snapshot) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot));
+            long seed = in.readLong();
+            if (seed < from || seed > to) throw new IOException("Snapshot seed outside worker range");
+            nextSeed = seed;
+            round = in.readInt();
+            if (in.readBoolean()) {
+                deck = config.newDeck(nextSeed);
+                deck.readState(in);
+                sim = config.newSimulator(deck);
+            }
+            stats = SimulationStats.read(in);
+            snapshots.set(index, snapshot);
+        }
+    }
+
+    /**
+     * java sim.ResumableSimulation checkpointFile [seeds] [workers]
+     *
+     * Resumes from the checkpoint if it exists. While running, type on stdin:
+     *   p = pause, r = resume, c = checkpoint now, q = checkpoint and quit
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java sim.ResumableSimulation checkpointFile [seeds] [workers]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        long seeds = args.length > 1 ? Long.parseLong(args[1]) : 10_000_000L;
+        int workerCount = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        ResumableSimulation sim;
+        if (Files.exists(file)) {
+            sim = load(file);
+            System.out.printf("Resumed: %d of %d seeds done%n", sim.seedsDone(), sim.seedCount());
+        } else {
+            sim = new ResumableSimulation(SimulationConfig.defaults(), 0, seeds, workerCount);
+        }
+
+        Thread console = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    switch (line.trim()) {
+                        case "p": sim.pause(); System.out.println("Paused"); break;
+                        case "r": sim.resume(); System.out.println("Resumed"); break;
+                        case "c": sim.checkpoint(file); System.out.println("Checkpoint written"); break;
+                        case "q": sim.stop(); return;
+                        default: System.out.println("p = pause, r = resume, c = checkpoint, q = quit");
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                System.err.println("Console stopped: " + e);
+            }
+        }, "sim-console");
+        console.setDaemon(true);
+        console.start();
+
+        long t0 = System.nanoTime();
+        SimulationStats stats = sim.run(file, DEFAULT_CHECKPOINT_MILLIS);
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+
+        if (sim.isFinished()) {
+            System.out.printf("Finished in %d ms%n%s%n", ms, stats);
+        } else {
+            System.out.printf("Stopped after %d ms at %d of %d seeds; run again to resume%n",
+                    ms, sim.seedsDone(), sim.seedCount());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package sim;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar store of settled rounds.
+ *
+ * Every round is one row, but each field lives in its own primitive array so
+ * group-by / filter queries are plain loops over byte[] columns (no boxing,
+ * no per-row objects). Large stores are scanned in parallel chunks.
+ */
+public class RoundHistory {
+
+    // Outcome codes (from the player's point of view)
+    public static final byte WIN = 0;
+    public static final byte LOSS = 1;
+    public static final byte PUSH = 2;
+
+    // Totals are stored as-is; 31 is the highest total a hand can reach (21 + hit of 10)
+    public static final int MAX_TOTAL = 31;
+
+    // Rows per parallel chunk; smaller stores are scanned on the calling thread
+    private static final int CHUNK = 1 << 20;
+
+    private byte[] upcard;        // dealer upcard value, 1 (Ace) .. 10
+    private byte[] playerStart;   // player's two-card total
+    private byte[] playerTotal;   // player's final best total
+    private byte[] dealerTotal;   // dealer's final best total
+    private byte[] outcome;       // WIN / LOSS / PUSH
+    private byte[] cardCount;     // cards in the player's hand at settlement
+    private byte[] roundIndex;    // 1..MAX_ROUNDS within its game
+    private long[] seed;          // seed of the shoe the round was dealt from
+
+    private int size;
+
+    public RoundHistory() {
+        this(1024);
+    }
+
+    public RoundHistory(int initialCapacity) {
+        int cap = Math.max(16, initialCapacity);
+        upcard = new byte[cap];
+        playerStart = new byte[cap];
+        playerTotal = new byte[cap];
+        dealerTotal = new byte[cap];
+        outcome = new byte[cap];
+        cardCount = new byte[cap];
+        roundIndex = new byte[cap];
+        seed = new long[cap];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void record(int upcardValue, int startTotal, int finalPlayerTotal, int finalDealerTotal,
+                       byte result, int cards, int round, long shoeSeed) {
+        if (size == outcome.length) grow();
+
+        int i = size++;
+        upcard[i] = (byte) upcardValue;
+        playerStart[i] = (byte) startTotal;
+        playerTotal[i] = (byte) finalPlayerTotal;
+        dealerTotal[i] = (byte) finalDealerTotal;
+        outcome[i] = result;
+        cardCount[i] = (byte) cards;
+        roundIndex[i] = (byte) round;
+        seed[i] = shoeSeed;
+    }
+
+    private void grow() {
+        int cap = outcome.length + (outcome.length >> 1);
+        upcard = Arrays.copyOf(upcard, cap);
+        playerStart = Arrays.copyOf(playerStart, cap);
+        playerTotal = Arrays.copyOf(playerTotal, cap);
+        dealerTotal = Arrays.copyOf(dealerTotal, cap);
+        outcome = Arrays.copyOf(outcome, cap);
+        cardCount = Arrays.copyOf(cardCount, cap);
+        roundIndex = Arrays.copyOf(roundIndex, cap);
+        seed = Arrays.copyOf(seed, cap);
+    }
+
+    // -------- Row access --------
+
+    public int upcard(int row)      { return upcard[row]; }
+    public int playerStart(int row) { return playerStart[row]; }
+    public int playerTotal(int row) { return playerTotal[row]; }
+    public int dealerTotal(int row) { return dealerTotal[row]; }
+    public byte outcome(int row)    { return outcome[row]; }
+    public int cardCount(int row)   { return cardCount[row]; }
+    public int roundIndex(int row)  { return roundIndex[row]; }
+    public long seed(int row)       { return seed[row]; }
+
+    // -------- Queries --------
+
+    // Player win rate per dealer upcard; index = upcard value (1 = Ace .. 10)
+    public double[] winRateByUpcard() {
+        long[] counts = scan((from, to, acc) -> {
+            for (int i = from; i < to; i++) {
+                int u = upcard[i];
+                acc[u]++;
+                if (outcome[i] == WIN) acc[11 + u]++;
+            }
+        }, 22);
+        return ratio(counts, 11);
+    }
+
+    // Share of rounds where the player busted, grouped by the player's two-card total
+    public double[] bustRateByPlayerTotal() {
+        int n = MAX_TOTAL + 1;
+        long[] counts = scan((from, to, acc) -> {
+            for (int i = from; i < to; i++) {
+                int s = playerStart[i];
+                acc[s]++;
+                if (playerTotal[i] > 21) acc[n + s]++;
+            }
+        }, 2 * n);
+        return ratio(counts, n);
+    }
+
+    // Histogram of dealer final totals (index = total, > 21 means bust)
+    public long[] dealerTotalHistogram() {
+        return scan((from, to, acc) -> {
+            for (int i = from; i < to; i++) acc[dealerTotal[i]]++;
+        }, MAX_TOTAL + 1);
+    }
+
+    /**
+     * Average score difference (player - dealer) after each round of a game.
+     * Index r holds the running value after round r (1..maxRounds).
+     */
+    public double[] scoreProgression(int maxRounds) {
+        int n = maxRounds + 1;
+        long[] counts = scan((from, to, acc) -> {
+            for (int i = from; i < to; i++) {
+                int r = roundIndex[i];
+                if (r < 1 || r > maxRounds) continue;
+                acc[r]++;
+                byte o = outcome[i];
+                if (o == WIN) acc[n + r]++;
+                else if (o == LOSS) acc[n + r]--;
+            }
+        }, 2 * n);
+
+        double[] out = new double[n];
+        double running = 0;
+        for (int r = 1; r < n; r++) {
+            if (counts[r] > 0) running += (double) counts[n + r] / counts[r];
+            out[r] = running;
+        }
+        return out;
+    }
+
+    // Number of rounds with the given upcard and outcome (-1 matches any)
+    public long count(int upcardValue, int result) {
+        long[] c = scan((from, to, acc) -> {
+            long hits = 0;
+            for (int i = from; i < to; i++) {
+                if ((upcardValue < 0 || upcard[i] == upcardValue)
+                        && (result < 0 || outcome[i] == result)) hits++;
+            }
+            acc[0] += hits;
+        }, 1);
+        return c[0];
+    }
+
+    // -------- Scan helpers --------
+
+    @FunctionalInterface
+    private interface Kernel {
+        void run(int from, int to, long[] acc);
+    }
+
+    // Runs the kernel over [0, size) and sums the per-chunk accumulators
+    private long[] scan(Kernel kernel, int width) {
+        int n = size;
+        if (n <= CHUNK) {
+            long[] acc = new long[width];
+            kernel.run(0, n, acc);
+            return acc;
+        }
+
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    long[] acc = new long[width];
+                    kernel.run(c * CHUNK, Math.min(n, (c + 1) * CHUNK), acc);
+                    return acc;
+                })
+                .reduce(new long[width], RoundHistory::sum);
+    }
+
+    private static long[] sum(long[] a, long[] b) {
+        long[] out = new long[a.length];
+        for (int i = 0; i < a.length; i++) out[i] = a[i] + b[i];
+        return out;
+    }
+
+    // counts[0..n) are totals, counts[n..2n) are hits
+    private static double[] ratio(long[] counts, int n) {
+        double[] out = new double[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = counts[i] == 0 ? 0.0 : (double) counts[n + i] / counts[i];
+        }
+        return out;
+    }
+}
@@ -0,0 +1,104 @@
+package history;
+
+import model.HandArena;
+import sim.RoundSimulator;
+
+/**
+ * One round as stored in a hand history: round number, outcome, whether
+ * insurance was taken, the player's hands (each with its cards and whether
+ * it was doubled) and the dealer's cards, all as Card.code(). Meant to be
+ * reused: the reader overwrites the same instance for every frame it decodes.
+ */
+public final class RoundRecord {
+
+    // Dealer hand size is stored in 5 bits
+    public static final int MAX_CARDS = 31;
+
+    // A round has as many hands as a HandArena, each at most as long
+    public static final int MAX_HANDS = HandArena.MAX_HANDS;
+    public static final int MAX_HAND_CARDS = HandArena.MAX_CARDS;
+
+    private long round;
+    private byte outcome;
+    private boolean insurance;
+
+    // Cards of every hand back to back; hand h starts at handStart[h]
+    private final byte[] playerCards = new byte[MAX_HANDS * MAX_HAND_CARDS];
+    private final int[] handStart = new int[MAX_HANDS];
+    private final int[] handSize = new int[MAX_HANDS];
+    private final boolean[] doubled = new boolean[MAX_HANDS];
+    private int handCount;
+    private int playerCount;
+
+    private final byte[] dealerCards = new byte[MAX_CARDS];
+    private int dealerCount;
+
+    public void clear() {
+        round = 0;
+        outcome = 0;
+        insurance = false;
+        handCount = 0;
+        playerCount = 0;
+        dealerCount = 0;
+    }
+
+    public void set(long round, byte outcome) {
+        if (round < 0) throw new IllegalArgumentException("Round cannot be negative");
+        this.round = round;
+        this.outcome = outcome;
+    }
+
+    public void setInsurance(boolean taken) {
+        this.insurance = taken;
+    }
+
+    // Opens the next player hand; cards added after this go into it
+    public void startHand(boolean doubled) {
+        if (handCount == MAX_HANDS) throw new IllegalStateException("No room for another hand");
+        handStart[handCount] = playerCount;
+        handSize[handCount] = 0;
+        this.doubled[handCount] = doubled;
+        handCount++;
+    }
+
+    // Adds to the last hand opened (the first one is opened on demand)
+    public void addPlayerCard(int code) {
+        if (handCount == 0) startHand(false);
+        int h = handCount - 1;
+        if (handSize[h] == MAX_HAND_CARDS) throw new IllegalStateException("Hand is full");
+        playerCards[playerCount++] = (byte) code;
+        handSize[h]++;
+    }
+
+    public void addDealerCard(int code) {
+        if (dealerCount == MAX_CARDS) throw new IllegalStateException("Hand is full");
+        dealerCards[dealerCount++] = (byte) code;
+    }
+
+    // Copies the last round played by the simulator, split hands and doubles included
+    public void fillFrom(RoundSimulator sim, long round, byte outcome) {
+        clear();
+        set(round, outcome);
+        setInsurance(sim.insuranceTaken());
+        HandArena hands = sim.hands();
+        for (int h = 0; h < hands.handCount(); h++) {
+            startHand(hands.isDoubled(h));
+            for (int i = 0; i < hands.cardCount(h); i++) addPlayerCard(hands.code(h, i));
+        }
+        for (int i = 0; i < sim.dealerCardCount(); i++) addDealerCard(sim.dealerCardCode(i));
+    }
+
+    public long round()               { return round; }
+    public byte outcome()             { return outcome; }
+    public boolean insurance()        { return insurance; }
+    public int handCount()            { return handCount; }
+    public int handSize(int h)        { return handSize[h]; }
+    public boolean isDoubled(int h)   { return doubled[h]; }
+    public int playerCard(int h, int i) { return playerCards[handStart[h] + i]; }
+    public int dealerCount()          { return dealerCount; }
+    public int dealerCard(int i)      { return dealerCards[i]; }
+
+    // Every player card over all hands, hand by hand
+    public int playerCount()          { return playerCount; }
+    public int playerCard(int i)      { return playerCards[i]; }
+}
@@ -0,0 +1,293 @@
+package sim;
+
+import controller.GameController;
+import model.Card;
+import model.Deck;
+import model.HandArena;
+import model.Shoe;
+import model.TableRules;
+
+/**
+ * Headless version of the round played by GameController.
+ *
+ * Same deal order (player, dealer, player, dealer), same bust checks and the
+ * same dealer rule as ComputerPlayer, but hands are tracked as primitive
+ * hard sums / Ace counts so millions of rounds can be played without
+ * creating Player objects. Split hands live in a HandArena that is reused
+ * for every round, so doubling and splitting allocate nothing either.
+ * Any Shoe can be dealt from: a Deck, or a CompositionShoe.
+ */
+public class RoundSimulator {
+
+    private final Shoe deck;
+    private final PlayerStrategy strategy;
+    private final TableRules rules;
+
+    // The player's hands of the current round
+    private final HandArena hands = new HandArena();
+
+    // Cards on the table this round; handed back to the deck when the round ends
+    private final Card[] inPlay = new Card[HandArena.MAX_HANDS * HandArena.MAX_CARDS + 32];
+    private int inPlayCount;
+
+    // Card.code() of every card dealt to the player (all hands) and to the dealer, in deal order
+    private final byte[] playerCodes = new byte[HandArena.MAX_HANDS * HandArena.MAX_CARDS];
+    private final byte[] dealerCodes = new byte[32];
+    private int playerCodeCount;
+    private int dealerCodeCount;
+
+    // Details of the last round played (read after playRound())
+    private int upcard;
+    private int playerStart;
+    private int playerTotal;
+    private int dealerTotal;
+    private int playerCards;
+    private boolean insuranceTaken;
+    private boolean dealerBlackjack;
+    private double net;
+
+    // Raw hands of the last round (hard sum counts every Ace as 1); the player's is the first hand
+    private int pHard, pAces, dHard, dAces;
+
+    public RoundSimulator(Shoe deck, PlayerStrategy strategy) {
+        this(deck, strategy, false);
+    }
+
+    // Dealer also hits a soft 17 (H17 tables); the interactive game stands on all 17s
+    public RoundSimulator(Shoe deck, PlayerStrategy strategy, boolean dealerHitsSoft17) {
+        this(deck, strategy, TableRules.HIT_STAND.withDealerHitsSoft17(dealerHitsSoft17));
+    }
+
+    public RoundSimulator(Shoe deck, PlayerStrategy strategy, TableRules rules) {
+        if (deck == null || strategy == null || rules == null) {
+            throw new IllegalArgumentException("Shoe/Strategy/Rules cannot be null");
+        }
+        this.deck = deck;
+        this.strategy = strategy;
+        this.rules = rules;
+    }
+
+    // Best total <= 21 if possible (one Ace counted as 11), else the hard sum
+    public static int bestTotal(int hardSum, int aceCount) {
+        return (aceCount > 0 && hardSum + 10 <= 21) ? hardSum + 10 : hardSum;
+    }
+
+    /**
+     * Plays one full round and returns its outcome (RoundHistory.WIN / LOSS /
+     * PUSH): the sign of net(), which with one undoubled hand is that hand's result.
+     */
+    public byte playRound() {
+        playHands();
+
+        dealerTotal = bestTotal(dHard, dAces);
+        net = 0;
+        for (int h = 0; h < hands.handCount(); h++) {
+            net += hands.bet(h) * settle(h);
+        }
+        if (insuranceTaken) net += TableRules.insuranceResult(dealerBlackjack);
+
+        playerTotal = hands.total(0);
+        if (net > 0) return RoundHistory.WIN;
+        if (net < 0) return RoundHistory.LOSS;
+        return RoundHistory.PUSH;
+    }
+
+    // +1 / 0 / -1 for one hand against the dealer's finished hand
+    private int settle(int h) {
+        if (dealerBlackjack) return hands.isNatural(h) ? 0 : -1;
+        if (hands.isBust(h)) return -1;
+        if (dHard > 21) return 1;
+        return Integer.compare(hands.total(h), dealerTotal);
+    }
+
+    /**
+     * Plays rounds until the batch is full, storing the raw hands instead of
+     * settling them; settle afterwards with a HandEvaluator.
+     */
+    public void playHands(HandBatch batch) {
+        // Every hand of a round goes in, so stop while a whole round still fits
+        while (batch.capacity() - batch.size() >= rules.maxHands()) {
+            playHands();
+            for (int h = 0; h < hands.handCount(); h++) {
+                batch.add(hands.hard(h), hands.aces(h), dHard, dAces, upcard);
+            }
+        }
+    }
+
+    // Deals and plays every hand; leaves the final hands in the arena and dealer fields
+    private void playHands() {
+        if (deck.needsReshuffle()) deck.reshuffle();
+        ensureCardsAvailable(4);
+
+        playerCodeCount = 0;
+        dealerCodeCount = 0;
+        hands.clear();
+        hands.open(1);
+
+        drawToHand(0);
+        Card d1 = drawToDealer();
+        drawToHand(0);
+        Card d2 = drawToDealer();
+
+        dHard = d1.baseValue() + d2.baseValue();
+        dAces = (d1.isAce() ? 1 : 0) + (d2.isAce() ? 1 : 0);
+
+        upcard = d1.baseValue();
+        playerStart = hands.total(0);
+
+        // Insurance is decided before the dealer looks at the hole card
+        insuranceTaken = upcard == 1 && rules.insurance() && strategy.takeInsurance(hands.hard(0), hands.aces(0));
+        dealerBlackjack = rules.peeksWith(upcard) && dHard == 11 && dAces == 1;
+
+        // Player turn; split hands are appended to the arena and played in order
+        boolean anyStanding = false;
+        if (!dealerBlackjack) {
+            for (int h = 0; h < hands.handCount(); h++) {
+                playHand(h);
+                if (!hands.isBust(h)) anyStanding = true;
+            }
+        }
+
+        // Dealer turn (ComputerPlayer.shouldHit); skipped when every hand busted
+        if (anyStanding) {
+            while (dHard <= 21 && dealerHits()) {
+                ensureCardsAvailable(1);
+                Card c = drawToDealer();
+                dHard += c.baseValue();
+                if (c.isAce()) dAces++;
+            }
+        }
+
+        pHard = hands.hard(0);
+        pAces = hands.aces(0);
+        playerCards = playerCodeCount;
+        discardTable();
+    }
+
+    private void playHand(int h) {
+        // A split hand starts with one card
+        if (hands.cardCount(h) == 1) {
+            ensureCardsAvailable(1);
+            drawToHand(h);
+        }
+
+        while (rules.canSplit(hands, h) && strategy.shouldSplit(HandArena.value(hands.code(h, 0)), upcard)) {
+            hands.split(h);
+            ensureCardsAvailable(1);
+            drawToHand(h);
+        }
+        if (rules.isSplitAces(hands, h)) return;
+
+        if (rules.canDouble(hands, h) && strategy.shouldDouble(hands.hard(h), hands.aces(h), upcard)) {
+            hands.doubleBet(h);
+            ensureCardsAvailable(1);
+            drawToHand(h);
+            return;
+        }
+
+        while (!hands.isBust(h) && strategy.shouldHit(hands.hard(h), hands.aces(h), upcard)) {
+            ensureCardsAvailable(1);
+            drawToHand(h);
+        }
+    }
+
+    private boolean dealerHits() {
+        int total = bestTotal(dHard, dAces);
+        return total < 17 || (rules.dealerHitsSoft17() && total == 17 && total != dHard);
+    }
+
+    // Plays rounds and appends each one to the history; rounds are numbered like a game
+    public void simulate(long rounds, RoundHistory history) {
+        for (long i = 0; i < rounds; i++) {
+            byte result = playRound();
+            history.record(upcard, playerStart, playerTotal, dealerTotal, result, playerCards,
+                    (int) (i % GameController.MAX_ROUNDS) + 1, deck.seed());
+        }
+    }
+
+    private void drawToHand(int h) {
+        Card c = deck.draw();
+        inPlay[inPlayCount++] = c;
+        playerCodes[playerCodeCount++] = (byte) c.code();
+        hands.add(h, c.code());
+    }
+
+    private Card drawToDealer() {
+        Card c = deck.draw();
+        inPlay[inPlayCount++] = c;
+        dealerCodes[dealerCodeCount++] = (byte) c.code();
+        return c;
+    }
+
+    private void discardTable() {
+        for (int i = 0; i < inPlayCount; i++) {
+            deck.discard(inPlay[i]);
+            inPlay[i] = null;
+        }
+        inPlayCount = 0;
+    }
+
+    private void ensureCardsAvailable(int needed) {
+        if (deck.remaining() < needed) {
+            deck.reshuffle();
+        }
+    }
+
+    public TableRules rules() { return rules; }
+
+    // Last round: upcard, first hand's starting and final total, cards dealt to all the player's hands
+    public int upcard()      { return upcard; }
+    public int playerStart() { return playerStart; }
+    public int playerTotal() { return playerTotal; }
+    public int dealerTotal() { return dealerTotal; }
+    public int playerCards() { return playerCards; }
+
+    // Opening bets won (> 0) or lost over every hand and the insurance bet
+    public double net()               { return net; }
+    public boolean insuranceTaken()   { return insuranceTaken; }
+    public boolean dealerBlackjack()  { return dealerBlackjack; }
+
+    // The last round's hands; overwritten by the next round
+    public HandArena hands()          { return hands; }
+
+    // +1 / 0 / -1 for hand h of the last round, before its bet is applied
+    public int handResult(int h)      { return settle(h); }
+
+    public int playerCardCode(int i) { return playerCodes[i]; }
+    public int dealerCardCount()     { return dealerCodeCount; }
+    public int dealerCardCode(int i) { return dealerCodes[i]; }
+
+    // Quick command-line run: java sim.RoundSimulator [rounds] [seed] [cut|csm]
+    public static void main(String[] args) {
+        long rounds = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        Deck.ShuffleMode mode = (args.length > 2 && args[2].equalsIgnoreCase("csm"))
+                ? Deck.ShuffleMode.CONTINUOUS
+                : Deck.ShuffleMode.CUT_CARD;
+
+        RoundHistory history = new RoundHistory((int) Math.min(rounds, Integer.MAX_VALUE - 8));
+        Deck deck = new Deck(Deck.NUM_DECKS, mode, Deck.DEFAULT_PENETRATION, seed);
+        RoundSimulator sim = new RoundSimulator(deck, PlayerStrategy.dealerRule());
+
+        long t0 = System.nanoTime();
+        sim.simulate(rounds, history);
+        long t1 = System.nanoTime();
+
+        double[] byUpcard = history.winRateByUpcard();
+        double[] bust = history.bustRateByPlayerTotal();
+        double[] progression = history.scoreProgression(GameController.MAX_ROUNDS);
+        long t2 = System.nanoTime();
+
+        System.out.printf("Simulated %d rounds in %d ms, queries took %d ms%n",
+                rounds, (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000);
+
+        System.out.println("Win rate by dealer upcard:");
+        for (int u = 1; u <= 10; u++) {
+            System.out.printf("  %-3s %.4f%n", u == 1 ? "A" : String.valueOf(u), byUpcard[u]);
+        }
+        System.out.println("Bust rate by starting total:");
+        for (int t = 4; t <= 21; t++) System.out.printf("  %-3d %.4f%n", t, bust[t]);
+        System.out.println("Average score difference by round:");
+        for (int r = 1; r < progression.length; r++) System.out.printf("  %-3d %+.4f%n", r, progression[r]);
+    }
+}
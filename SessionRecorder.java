@@ -0,0 +1,237 @@
+package history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import event.GameEvent;
+import event.GameEventConsumer;
+
+/**
+ * Writes a recorded session (.bjr) from the game's event stream.
+ *
+ * Layout:
+ *   header   [magic "BJR1"][keyframe interval: int]
+ *   records  one per event; at most every K events a round start is written
+ *            as a KEYFRAME holding the full shoe order, both hands, both
+ *            scores and the player name, so a reader can start there
+ *   footer   [count: int][(round: int, offset: long) * count][index start: long][magic]
+ *
+ * The footer is a sparse index from round number to keyframe offset, which
+ * is all SessionReplay needs to seek. A session starts with the ROUND_STARTED
+ * event of round 1 and is finished by GAME_ENDED; it is written to a temp
+ * file and moved over the target only when complete.
+ */
+public final class SessionRecorder implements GameEventConsumer, Closeable {
+
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 64;
+
+    static final int MAGIC = 0x424A5231;          // "BJR1"
+    static final int FOOTER_MAGIC = 0x424A5249;   // "BJRI"
+    static final int HEADER_BYTES = 8;
+    static final int FOOTER_TAIL_BYTES = 12;      // index start + magic
+    static final int KEYFRAME = 0x40;             // record tag; other tags are GameEvent.Type ordinals
+
+    private final Path target;
+    private final Path temp;
+    private final int keyframeInterval;
+
+    private FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+    private long flushed;               // bytes already written to the channel
+
+    private int[] indexRounds = new int[64];
+    private long[] indexOffsets = new long[64];
+    private int indexCount;
+
+    private long eventsSinceKeyframe;
+    private boolean forceKeyframe;
+
+    public SessionRecorder(Path target, int keyframeInterval) {
+        if (keyframeInterval < 1) throw new IllegalArgumentException("Keyframe interval must be positive");
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    @Override
+    public void onEvent(GameEvent e, long sequence, boolean endOfBatch) throws IOException {
+        if (e.type() == GameEvent.Type.ROUND_STARTED && (e.round() == 1 || channel == null)) {
+            begin();
+        }
+        if (channel == null) return;   // joined in the middle of a game
+
+        switch (e.type()) {
+            case ROUND_STARTED:
+                if (forceKeyframe || indexCount == 0 || eventsSinceKeyframe >= keyframeInterval) {
+                    writeKeyframe(e);
+                } else {
+                    ensure(32);
+                    buf.put((byte) e.type().ordinal());
+                    putVarInt(e.round());
+                    putVarInt(e.playerScore());
+                    putVarInt(e.dealerScore());
+                    putVarInt(e.cardCount());
+                }
+                break;
+            case CARD_DRAWN:
+                ensure(3);
+                buf.put((byte) e.type().ordinal());
+                buf.put((byte) e.seat());
+                buf.put((byte) e.cardCode());
+                break;
+            case PLAYER_DOUBLED:
+            case PLAYER_SPLIT:
+                ensure(2);
+                buf.put((byte) e.type().ordinal());
+                buf.put((byte) e.seat());
+                break;
+            case ROUND_SETTLED:
+            case GAME_ENDED:
+                ensure(16);
+                buf.put((byte) e.type().ordinal());
+                putVarInt(e.playerScore());
+                putVarInt(e.dealerScore());
+                putString(e.text());
+                break;
+            case RESHUFFLED:
+                // The shoe order changed: the next round start must carry it again
+                forceKeyframe = true;
+                ensure(1);
+                buf.put((byte) e.type().ordinal());
+                break;
+            default:
+                ensure(1);
+                buf.put((byte) e.type().ordinal());
+                break;
+        }
+        eventsSinceKeyframe++;
+
+        if (e.type() == GameEvent.Type.GAME_ENDED) finish();
+        else if (endOfBatch) flushBuffer();
+    }
+
+    /**
+     * Events are missing, so the session being written can no longer be
+     * replayed. It is dropped and recording starts over at the next round
+     * start, whose keyframe carries the whole table.
+     */
+    @Override
+    public void onDropped(long count) {
+        try {
+            abandon();
+        } catch (IOException e) {
+            channel = null;   // the half-written temp file is replaced by the next begin()
+        }
+    }
+
+    private void begin() throws IOException {
+        abandon();
+
+        channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        flushed = 0;
+        indexCount = 0;
+        eventsSinceKeyframe = 0;
+        forceKeyframe = true;
+
+        buf.clear();
+        buf.putInt(MAGIC);
+        buf.putInt(keyframeInterval);
+    }
+
+    private void writeKeyframe(GameEvent e) throws IOException {
+        if (indexCount == indexRounds.length) {
+            indexRounds = Arrays.copyOf(indexRounds, indexCount * 2);
+            indexOffsets = Arrays.copyOf(indexOffsets, indexCount * 2);
+        }
+        indexRounds[indexCount] = e.round();
+        indexOffsets[indexCount] = flushed + buf.position();
+        indexCount++;
+
+        ensure(64 + e.cardCount());
+        buf.put((byte) KEYFRAME);
+        putVarInt(e.round());
+        putVarInt(e.playerScore());
+        putVarInt(e.dealerScore());
+        putString(e.text());
+
+        // Shoe order plus cursor (the cursor is the number of cards left)
+        putVarInt(e.cardCount());
+        for (int i = 0; i < e.cardCount(); i++) buf.put((byte) e.card(i));
+
+        // Hands are empty at a round start, but the format carries them
+        putVarInt(0);
+        putVarInt(0);
+
+        eventsSinceKeyframe = 0;
+        forceKeyframe = false;
+    }
+
+    // Writes the index footer and moves the finished session into place
+    private void finish() throws IOException {
+        long indexStart = flushed + buf.position();
+        ensure(4);
+        buf.putInt(indexCount);
+        for (int i = 0; i < indexCount; i++) {
+            ensure(12);
+            buf.putInt(indexRounds[i]);
+            buf.putLong(indexOffsets[i]);
+        }
+        ensure(FOOTER_TAIL_BYTES);
+        buf.putLong(indexStart);
+        buf.putInt(FOOTER_MAGIC);
+
+        flushBuffer();
+        channel.force(false);
+        channel.close();
+        channel = null;
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Drops an unfinished session (game abandoned before it ended)
+    private void abandon() throws IOException {
+        if (channel == null) return;
+        channel.close();
+        channel = null;
+        Files.deleteIfExists(temp);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buf.remaining() < bytes) flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) flushed += channel.write(buf);
+        buf.clear();
+    }
+
+    private void putVarInt(int v) {
+        while ((v & ~0x7F) != 0) {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    private void putString(String s) throws IOException {
+        byte[] b = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        ensure(5 + b.length);
+        putVarInt(b.length);
+        buf.put(b);
+    }
+
+    @Override
+    public void close() throws IOException {
+        abandon();
+    }
+}
@@ -0,0 +1,273 @@
+package history;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import event.GameEvent;
+
+/**
+ * Reads a session written by SessionRecorder and seeks by round.
+ *
+ * Seeking binary-searches the keyframe index, jumps to the nearest keyframe
+ * at or before the round and decodes forward from there, so the cost is at
+ * most one keyframe interval of records whatever the file size. Sessions
+ * without a footer (for example a crash mid-write) are indexed by one scan.
+ */
+public final class SessionReplay implements Closeable {
+
+    private static final GameEvent.Type[] TYPES = GameEvent.Type.values();
+
+    private final FileChannel channel;
+    private final int keyframeInterval;
+    private final long dataEnd;
+
+    private int[] indexRounds;
+    private long[] indexOffsets;
+    private int indexCount;
+
+    private final ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+    private long bufStart;           // file offset of buf[0]
+
+    private final ReplayState state = new ReplayState();
+    private final byte[] shoeScratch = new byte[GameEvent.MAX_CARDS];
+
+    private SessionReplay(FileChannel channel) throws IOException {
+        this.channel = channel;
+
+        ByteBuffer head = ByteBuffer.allocate(SessionRecorder.HEADER_BYTES);
+        readFully(head, 0);
+        if (head.getInt(0) != SessionRecorder.MAGIC) throw new IOException("Not a recorded session");
+        keyframeInterval = head.getInt(4);
+
+        long size = channel.size();
+        long indexStart = -1;
+        if (size >= SessionRecorder.HEADER_BYTES + SessionRecorder.FOOTER_TAIL_BYTES) {
+            ByteBuffer tail = ByteBuffer.allocate(SessionRecorder.FOOTER_TAIL_BYTES);
+            readFully(tail, size - SessionRecorder.FOOTER_TAIL_BYTES);
+            if (tail.getInt(8) == SessionRecorder.FOOTER_MAGIC) indexStart = tail.getLong(0);
+        }
+
+        if (indexStart >= 0) {
+            dataEnd = indexStart;
+            readIndex(indexStart, size - SessionRecorder.FOOTER_TAIL_BYTES);
+        } else {
+            dataEnd = size;
+            scanIndex();
+        }
+
+        if (indexCount == 0) throw new IOException("Recorded session is empty");
+        position(indexOffsets[0]);
+        step();
+    }
+
+    public static SessionReplay open(Path file) throws IOException {
+        return new SessionReplay(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    public ReplayState state() {
+        return state;
+    }
+
+    public int keyframeInterval() {
+        return keyframeInterval;
+    }
+
+    public int firstRound() {
+        return indexRounds[0];
+    }
+
+    /**
+     * Moves to the start of the given round (clamped to the recording):
+     * the round's first record has been applied and its cards are not dealt yet.
+     */
+    public void seekToRound(int round) throws IOException {
+        int i = Arrays.binarySearch(indexRounds, 0, indexCount, round);
+        if (i < 0) i = Math.max(0, -i - 2);
+        // Several keyframes can share a round number only if rounds repeat; take the first
+        while (i > 0 && indexRounds[i - 1] == indexRounds[i]) i--;
+
+        position(indexOffsets[i]);
+        step();
+        while (state.round() < round && step()) {
+            // decode forward to the round's first record
+        }
+    }
+
+    // Applies the next record; false at the end of the recording
+    public boolean step() throws IOException {
+        if (position() >= dataEnd) return false;
+
+        int tag = readByte();
+        if (tag == SessionRecorder.KEYFRAME) {
+            int round = readVarInt();
+            int pScore = readVarInt();
+            int dScore = readVarInt();
+            String name = readString();
+            int shoeCount = readVarInt();
+            for (int i = 0; i < shoeCount; i++) shoeScratch[i] = (byte) readByte();
+            state.startRound(round, pScore, dScore, shoeCount);
+            state.setPlayerName(name);
+            state.setShoe(shoeScratch, shoeCount);
+
+            int players = readVarInt();
+            for (int i = 0; i < players; i++) state.addCard(GameEvent.SEAT_PLAYER, readByte());
+            int dealers = readVarInt();
+            for (int i = 0; i < dealers; i++) state.addCard(GameEvent.SEAT_DEALER, readByte());
+            return true;
+        }
+
+        if (tag >= TYPES.length) throw new IOException("Corrupt session record: " + tag);
+        switch (TYPES[tag]) {
+            case ROUND_STARTED: {
+                int round = readVarInt();
+                int pScore = readVarInt();
+                int dScore = readVarInt();
+                state.startRound(round, pScore, dScore, readVarInt());
+                break;
+            }
+            case CARD_DRAWN: {
+                int seat = readByte();
+                state.cardDrawn(seat, readByte());
+                break;
+            }
+            case PLAYER_STOOD:
+                state.playerStood();
+                break;
+            case PLAYER_DOUBLED:
+                state.playerDoubled(readByte());
+                break;
+            case PLAYER_SPLIT:
+                state.playerSplit(readByte());
+                break;
+            case ROUND_SETTLED: {
+                int pScore = readVarInt();
+                int dScore = readVarInt();
+                state.roundSettled(pScore, dScore, readString());
+                break;
+            }
+            case GAME_ENDED: {
+                int pScore = readVarInt();
+                int dScore = readVarInt();
+                readString();
+                state.gameEnded(pScore, dScore);
+                break;
+            }
+            default:
+                // PLAYER_HIT / DEALER_HIT / RESHUFFLED / INSURANCE_TAKEN carry no state of their own
+                break;
+        }
+        return true;
+    }
+
+    // -------- Index --------
+
+    private void readIndex(long from, long to) throws IOException {
+        ByteBuffer idx = ByteBuffer.allocate((int) (to - from));
+        readFully(idx, from);
+        indexCount = idx.getInt(0);
+        indexRounds = new int[Math.max(1, indexCount)];
+        indexOffsets = new long[Math.max(1, indexCount)];
+        for (int i = 0; i < indexCount; i++) {
+            indexRounds[i] = idx.getInt(4 + i * 12);
+            indexOffsets[i] = idx.getLong(8 + i * 12);
+        }
+    }
+
+    private void scanIndex() throws IOException {
+        indexRounds = new int[64];
+        indexOffsets = new long[64];
+        indexCount = 0;
+
+        position(SessionRecorder.HEADER_BYTES);
+        try {
+            while (position() < dataEnd) {
+                long at = position();
+                boolean keyframe = peekByte() == SessionRecorder.KEYFRAME;
+                step();
+                if (keyframe) {
+                    if (indexCount == indexRounds.length) {
+                        indexRounds = Arrays.copyOf(indexRounds, indexCount * 2);
+                        indexOffsets = Arrays.copyOf(indexOffsets, indexCount * 2);
+                    }
+                    indexRounds[indexCount] = state.round();
+                    indexOffsets[indexCount] = at;
+                    indexCount++;
+                }
+            }
+        } catch (EOFException e) {
+            // Unfinished last record; everything before it is usable
+        }
+    }
+
+    // -------- Buffered reads --------
+
+    private long position() {
+        return bufStart + buf.position();
+    }
+
+    private void position(long offset) {
+        bufStart = offset;
+        buf.clear().limit(0);
+    }
+
+    private int peekByte() throws IOException {
+        if (!buf.hasRemaining()) refill();
+        return buf.get(buf.position()) & 0xFF;
+    }
+
+    private int readByte() throws IOException {
+        if (!buf.hasRemaining()) refill();
+        return buf.get() & 0xFF;
+    }
+
+    private int readVarInt() throws IOException {
+        int v = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = readByte();
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return v;
+    }
+
+    private String readString() throws IOException {
+        int n = readVarInt();
+        byte[] b = new byte[n];
+        for (int i = 0; i < n; i++) b[i] = (byte) readByte();
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private void refill() throws IOException {
+        bufStart += buf.position();
+        buf.clear();
+        long left = dataEnd - bufStart;
+        if (left <= 0) throw new EOFException("End of recorded session");
+        if (left < buf.capacity()) buf.limit((int) left);
+
+        int n = channel.read(buf, bufStart);
+        if (n <= 0) throw new EOFException("End of recorded session");
+        buf.flip();
+    }
+
+    private void readFully(ByteBuffer dst, long offset) throws IOException {
+        while (dst.hasRemaining()) {
+            int n = channel.read(dst, offset + dst.position());
+            if (n < 0) throw new EOFException("Recorded session is truncated");
+        }
+        dst.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
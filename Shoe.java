@@ -0,0 +1,42 @@
+package model;
+
+/**
+ * Minimal shoe contract shared by Deck and the compact simulation shoes.
+ *
+ * The discard and reshuffle hooks let RoundSimulator play any shoe: a shoe
+ * without a discard tray forgets dealt cards, and by default a reshuffle
+ * starts over with a full, shuffled shoe.
+ */
+public interface Shoe {
+
+    // Puts every card back into the shoe
+    void reset();
+
+    // Shuffles the cards currently in the shoe
+    void shuffle();
+
+    int remaining();
+
+    // Takes the top card; throws IllegalStateException when the shoe is empty
+    Card draw();
+
+    // Hands back a card that was dealt and is now off the table
+    default void discard(Card card) {
+    }
+
+    // True when the shoe should be reshuffled before the next round
+    default boolean needsReshuffle() {
+        return false;
+    }
+
+    // Brings the discarded cards back and shuffles
+    default void reshuffle() {
+        reset();
+        shuffle();
+    }
+
+    // Seed the shoe's order comes from, recorded with simulated rounds (0 if it has none)
+    default long seed() {
+        return 0;
+    }
+}
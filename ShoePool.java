@@ -0,0 +1,211 @@
+package sim;
+
+import java.nio.ByteBuffer;
+
+import model.Card;
+import model.Shoe;
+
+/**
+ * Millions of independent shoes packed into off-heap memory.
+ *
+ * Each slot is [rng state: 8 bytes][remaining: 2 bytes][card codes: 1 byte
+ * per card], so a 4-deck shoe costs 218 bytes instead of an ArrayList of
+ * Card objects. The shuffle RNG (SplitMix64) keeps its state in the slot
+ * header and advances it there, so a slot never repeats a shuffle and
+ * shuffling allocates nothing.
+ * Slots live in direct ByteBuffers (at most 1 GB each), which the GC never
+ * scans or copies. MemorySegment would lift the 1 GB limit, but on JDK 17,
+ * the tree's target, it is the incubating jdk.incubator.foreign API, whose
+ * shape changed in every release until JDK 22. Cards are returned as the
+ * shared Card.fromCode instances.
+ *
+ * A slot must only be used by one thread at a time; different slots can be
+ * used from different threads freely.
+ */
+public class ShoePool {
+
+    // Slot header: SplitMix64 state, then the number of cards left
+    private static final int STATE = 0;
+    private static final int REMAINING = 8;
+    private static final int HEADER_BYTES = 10;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final long MAX_BUFFER_BYTES = 1L << 30;
+
+    private final int shoeCount;
+    private final int cardsPerShoe;
+    private final int slotBytes;
+    private final int slotsPerBuffer;
+    private final ByteBuffer[] buffers;
+
+    // Unshuffled shoe order, copied in by reset()
+    private final byte[] freshShoe;
+
+    public ShoePool(int shoeCount, int numDecks, long seed) {
+        if (shoeCount < 1 || numDecks < 1) {
+            throw new IllegalArgumentException("Shoe and deck counts must be positive");
+        }
+
+        this.shoeCount = shoeCount;
+        this.cardsPerShoe = numDecks * Card.Suit.values().length * Card.Rank.values().length;
+        if (cardsPerShoe > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many decks per shoe: " + numDecks);
+        }
+        this.slotBytes = HEADER_BYTES + cardsPerShoe;
+        this.slotsPerBuffer = (int) (MAX_BUFFER_BYTES / slotBytes);
+
+        freshShoe = new byte[cardsPerShoe];
+        int i = 0;
+        for (int d = 0; d < numDecks; d++) {
+            for (Card.Suit s : Card.Suit.values()) {
+                for (Card.Rank r : Card.Rank.values()) {
+                    freshShoe[i++] = (byte) new Card(s, r).code();
+                }
+            }
+        }
+
+        int bufferCount = (shoeCount + slotsPerBuffer - 1) / slotsPerBuffer;
+        buffers = new ByteBuffer[bufferCount];
+        for (int b = 0; b < bufferCount; b++) {
+            int slots = Math.min(slotsPerBuffer, shoeCount - b * slotsPerBuffer);
+            buffers[b] = ByteBuffer.allocateDirect(slots * slotBytes);
+        }
+
+        // Every slot gets its own stream, derived from the pool seed and the slot number
+        for (int slot = 0; slot < shoeCount; slot++) {
+            buffer(slot).putLong(offset(slot) + STATE, mix64(seed ^ (GOLDEN * (slot + 1L))));
+        }
+        // Slots start empty (remaining = 0); call reset()/shuffle() before drawing
+    }
+
+    public int shoeCount() {
+        return shoeCount;
+    }
+
+    public int cardsPerShoe() {
+        return cardsPerShoe;
+    }
+
+    // Off-heap bytes held by the pool
+    public long memoryBytes() {
+        return (long) shoeCount * slotBytes;
+    }
+
+    // -------- Slot operations (no allocation) --------
+
+    public void reset(int slot) {
+        ByteBuffer buf = buffer(slot);
+        int base = offset(slot);
+        buf.put(base + HEADER_BYTES, freshShoe);
+        buf.putShort(base + REMAINING, (short) cardsPerShoe);
+    }
+
+    // Fisher-Yates over the cards left, continuing the slot's own RNG stream
+    public void shuffle(int slot) {
+        ByteBuffer buf = buffer(slot);
+        int base = offset(slot);
+        int cards = base + HEADER_BYTES;
+        long state = buf.getLong(base + STATE);
+        for (int i = buf.getShort(base + REMAINING); i > 1; i--) {
+            // Lemire's multiply-shift on 32 random bits, rejecting the few values that would bias it
+            long threshold = (1L << 32) % i;
+            long m;
+            do {
+                state += GOLDEN;
+                m = (mix64(state) >>> 32) * i;
+            } while ((m & 0xFFFFFFFFL) < threshold);
+            int j = (int) (m >>> 32);
+
+            byte tmp = buf.get(cards + i - 1);
+            buf.put(cards + i - 1, buf.get(cards + j));
+            buf.put(cards + j, tmp);
+        }
+        buf.putLong(base + STATE, state);
+    }
+
+    public int remaining(int slot) {
+        return buffer(slot).getShort(offset(slot) + REMAINING);
+    }
+
+    // Draws the top card of a slot and returns its Card.code()
+    public int drawCode(int slot) {
+        ByteBuffer buf = buffer(slot);
+        int base = offset(slot);
+        int left = buf.getShort(base + REMAINING);
+        if (left == 0) throw new IllegalStateException("Deck is empty");
+        left--;
+        buf.putShort(base + REMAINING, (short) left);
+        return buf.get(base + HEADER_BYTES + left);
+    }
+
+    private ByteBuffer buffer(int slot) {
+        if (slot < 0 || slot >= shoeCount) throw new IndexOutOfBoundsException("Slot " + slot);
+        return buffers[slot / slotsPerBuffer];
+    }
+
+    private int offset(int slot) {
+        return (slot % slotsPerBuffer) * slotBytes;
+    }
+
+    // SplitMix64 output function
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // -------- Handles --------
+
+    /**
+     * Shoe view of one slot. The RNG state lives in the slot, so a handle
+     * carries nothing but the slot number: moving it between slots costs
+     * nothing, and a slot's shuffles continue where they left off whichever
+     * handle made them. Runs with the same pool seed shuffle identically.
+     */
+    public Handle handle(int slot) {
+        return new Handle(slot);
+    }
+
+    public final class Handle implements Shoe {
+
+        private int slot;
+
+        private Handle(int slot) {
+            moveTo(slot);
+        }
+
+        public int slot() {
+            return slot;
+        }
+
+        // Re-points this handle at another slot so one handle can walk the whole pool
+        public Handle moveTo(int newSlot) {
+            buffer(newSlot);
+            this.slot = newSlot;
+            return this;
+        }
+
+        @Override
+        public void reset() {
+            ShoePool.this.reset(slot);
+        }
+
+        @Override
+        public void shuffle() {
+            ShoePool.this.shuffle(slot);
+        }
+
+        @Override
+        public int remaining() {
+            return ShoePool.this.remaining(slot);
+        }
+
+        @Override
+        public Card draw() {
+            return Card.fromCode(ShoePool.this.drawCode(slot));
+        }
+
+        public int drawCode() {
+            return ShoePool.this.drawCode(slot);
+        }
+    }
+}
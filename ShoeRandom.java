@@ -0,0 +1,44 @@
+package model;
+
+import java.util.Random;
+
+/**
+ * java.util.Random with its 48-bit state exposed.
+ *
+ * Produces exactly the same numbers as new Random(seed) (same LCG, and
+ * Random's nextInt(bound) is built on next()), but the state can be read and
+ * restored, so a shoe can be checkpointed mid-game. Not thread-safe; a Deck
+ * is only used from one thread.
+ */
+final class ShoeRandom extends Random {
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // No initializer: Random's constructor sets it through setSeed() before field initializers would run
+    private long state;
+
+    ShoeRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    long state() {
+        return state;
+    }
+
+    void restore(long savedState) {
+        state = savedState & MASK;
+    }
+}
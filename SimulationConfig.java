@@ -0,0 +1,167 @@
+package sim;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import controller.GameController;
+import model.Deck;
+import model.Shoe;
+
+/**
+ * Table rules and player strategy of a simulation run.
+ *
+ * A run is a range of seeds; each seed is one game: a fresh shoe built from
+ * that seed, played for roundsPerSeed rounds. Configs are immutable and
+ * small enough to be sent to worker processes with write()/read().
+ */
+public final class SimulationConfig {
+
+    /**
+     * DECK:        an ordered Deck in the configured shuffle mode.
+     * COMPOSITION: a CompositionShoe (counts only, cut card at the penetration).
+     * INFINITE:    an infinite CompositionShoe; every card is drawn from a full shoe.
+     */
+    public enum ShoeKind {
+        DECK, COMPOSITION, INFINITE
+    }
+
+    private final int numDecks;
+    private final Deck.ShuffleMode mode;
+    private final double penetration;
+    private final int standOn;        // player stands on this total or more
+    private final int roundsPerSeed;
+    private final boolean dealerHitsSoft17;
+    private final ShoeKind shoe;
+
+    public SimulationConfig(int numDecks, Deck.ShuffleMode mode, double penetration,
+                            int standOn, int roundsPerSeed) {
+        this(numDecks, mode, penetration, standOn, roundsPerSeed, false);
+    }
+
+    public SimulationConfig(int numDecks, Deck.ShuffleMode mode, double penetration,
+                            int standOn, int roundsPerSeed, boolean dealerHitsSoft17) {
+        this(numDecks, mode, penetration, standOn, roundsPerSeed, dealerHitsSoft17, ShoeKind.DECK);
+    }
+
+    // mode only applies to DECK shoes
+    public SimulationConfig(int numDecks, Deck.ShuffleMode mode, double penetration,
+                            int standOn, int roundsPerSeed, boolean dealerHitsSoft17, ShoeKind shoe) {
+        if (numDecks < 1) throw new IllegalArgumentException("Deck count must be at least 1");
+        if (mode == null || shoe == null) throw new IllegalArgumentException("Shuffle mode/Shoe kind cannot be null");
+        if (!(penetration > 0.0 && penetration <= 1.0)) {
+            throw new IllegalArgumentException("Penetration must be in (0, 1]");
+        }
+        if (standOn < 2 || standOn > 22) throw new IllegalArgumentException("Stand total must be in 2..22");
+        if (roundsPerSeed < 1) throw new IllegalArgumentException("Rounds per seed must be positive");
+
+        this.numDecks = numDecks;
+        this.mode = mode;
+        this.penetration = penetration;
+        this.standOn = standOn;
+        this.roundsPerSeed = roundsPerSeed;
+        this.dealerHitsSoft17 = dealerHitsSoft17;
+        this.shoe = shoe;
+    }
+
+    // The interactive game's rules: 4 decks, cut card at 75%, stand on 17, 10 rounds per game
+    public static SimulationConfig defaults() {
+        return new SimulationConfig(Deck.NUM_DECKS, Deck.ShuffleMode.CUT_CARD, Deck.DEFAULT_PENETRATION,
+                17, GameController.MAX_ROUNDS);
+    }
+
+    public int numDecks()             { return numDecks; }
+    public Deck.ShuffleMode mode()    { return mode; }
+    public double penetration()       { return penetration; }
+    public int standOn()              { return standOn; }
+    public int roundsPerSeed()        { return roundsPerSeed; }
+    public boolean dealerHitsSoft17() { return dealerHitsSoft17; }
+    public ShoeKind shoe()            { return shoe; }
+
+    // Only for DECK configs; use newShoe() to play any kind
+    public Deck newDeck(long seed) {
+        if (shoe != ShoeKind.DECK) throw new IllegalStateException("Config plays a " + shoe + " shoe, not a Deck");
+        return new Deck(numDecks, mode, penetration, seed);
+    }
+
+    public Shoe newShoe(long seed) {
+        switch (shoe) {
+            case COMPOSITION: return new CompositionShoe(numDecks, false, false, penetration, seed);
+            case INFINITE:    return new CompositionShoe(numDecks, false, true, seed);
+            default:          return newDeck(seed);
+        }
+    }
+
+    public PlayerStrategy strategy() {
+        return PlayerStrategy.standAt(standOn);
+    }
+
+    public RoundSimulator newSimulator(Shoe shoe) {
+        return new RoundSimulator(shoe, strategy(), dealerHitsSoft17);
+    }
+
+    // Plays every round of one seed into stats; the same seed always gives the same rounds
+    public void playSeed(long seed, SimulationStats stats) {
+        RoundSimulator sim = newSimulator(newShoe(seed));
+        for (int r = 0; r < roundsPerSeed; r++) {
+            stats.add(sim, sim.playRound());
+        }
+    }
+
+    public void playSeeds(long fromSeed, long toSeed, SimulationStats stats) {
+        for (long s = fromSeed; s < toSeed; s++) playSeed(s, stats);
+    }
+
+    // -------- Binary form --------
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(numDecks);
+        out.writeByte(mode.ordinal());
+        out.writeDouble(penetration);
+        out.writeInt(standOn);
+        out.writeInt(roundsPerSeed);
+        out.writeBoolean(dealerHitsSoft17);
+        out.writeByte(shoe.ordinal());
+    }
+
+    public static SimulationConfig read(DataInput in) throws IOException {
+        int decks = in.readInt();
+        int mode = in.readByte();
+        double penetration = in.readDouble();
+        int standOn = in.readInt();
+        int rounds = in.readInt();
+        boolean hitSoft17 = in.readBoolean();
+        int shoe = in.readByte();
+        if (mode < 0 || mode >= Deck.ShuffleMode.values().length) throw new IOException("Bad shuffle mode " + mode);
+        if (shoe < 0 || shoe >= ShoeKind.values().length) throw new IOException("Bad shoe kind " + shoe);
+        return new SimulationConfig(decks, Deck.ShuffleMode.values()[mode], penetration, standOn, rounds, hitSoft17,
+                ShoeKind.values()[shoe]);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SimulationConfig c
+                && numDecks == c.numDecks && mode == c.mode
+                && Double.compare(penetration, c.penetration) == 0
+                && standOn == c.standOn && roundsPerSeed == c.roundsPerSeed
+                && dealerHitsSoft17 == c.dealerHitsSoft17 && shoe == c.shoe;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = numDecks;
+        h = 31 * h + mode.hashCode();
+        h = 31 * h + Double.hashCode(penetration);
+        h = 31 * h + standOn;
+        h = 31 * h + roundsPerSeed;
+        h = 31 * h + (dealerHitsSoft17 ? 1 : 0);
+        return 31 * h + shoe.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "decks=" + numDecks + " mode=" + (shoe == ShoeKind.DECK ? mode : shoe) + " penetration=" + penetration
+                + " standOn=" + standOn + " rounds=" + roundsPerSeed
+                + " dealer=" + (dealerHitsSoft17 ? "h17" : "s17");
+    }
+}
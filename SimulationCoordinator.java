@@ -0,0 +1,321 @@
+package sim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads a seed range over several worker JVMs on this machine.
+ *
+ * The coordinator listens on a loopback port, starts each worker with
+ * ProcessBuilder and hands out seed ranges over the socket, a few per worker
+ * so fast workers take more. Workers stream partial SimulationStats for
+ * consecutive sub-ranges, which are merged as they arrive; the coordinator
+ * only has to remember where each task has got to. If a worker dies, the
+ * unfinished tail of its task goes back on the queue and a replacement is
+ * started (up to maxRestarts). That includes a process that exits before it
+ * connects, one that takes longer than the report timeout to connect, and a
+ * connected worker that goes that long without a report (it is killed).
+ * The run fails once no worker is connected or starting.
+ *
+ * Every seed is played exactly once with SimulationConfig.playSeed and stats
+ * merge by addition, so the result is identical to a single-process run.
+ */
+public final class SimulationCoordinator {
+
+    // Tasks per worker: enough for load balancing, few enough to keep messages rare
+    private static final int TASKS_PER_WORKER = 8;
+
+    // A partial result takes milliseconds, so this only trips for a stuck worker
+    public static final int DEFAULT_REPORT_TIMEOUT_MILLIS = 30_000;
+
+    private final int workerCount;
+    private final int maxRestarts;
+    private final int reportTimeoutMillis;
+
+    // Per run
+    private final LinkedBlockingDeque<Task> queue = new LinkedBlockingDeque<>();
+    private final Map<Integer, Worker> workers = new HashMap<>();
+    private SimulationConfig config;
+    private SimulationStats total;
+    private long seedsLeft;
+    private int liveWorkers;
+    private int restarts;
+    private int nextWorkerId;
+    private long nextTaskId;
+    private ServerSocket server;
+
+    private static final class Task {
+        final long id;
+        final long to;
+        long next;   // first seed not yet reported back
+
+        Task(long id, long from, long to) {
+            this.id = id;
+            this.next = from;
+            this.to = to;
+        }
+    }
+
+    // One launched worker process
+    private static final class Worker {
+        final int id;
+        final Process process;
+        final long launchedNanos = System.nanoTime();
+        boolean connected;   // said hello
+        boolean lost;        // its failure has been handled (replaced or given up on)
+
+        Worker(int id, Process process) {
+            this.id = id;
+            this.process = process;
+        }
+    }
+
+    public SimulationCoordinator(int workerCount, int maxRestarts) {
+        this(workerCount, maxRestarts, DEFAULT_REPORT_TIMEOUT_MILLIS);
+    }
+
+    public SimulationCoordinator(int workerCount, int maxRestarts, int reportTimeoutMillis) {
+        if (workerCount < 1) throw new IllegalArgumentException("Need at least one worker");
+        if (maxRestarts < 0) throw new IllegalArgumentException("Restarts cannot be negative");
+        if (reportTimeoutMillis < 1) throw new IllegalArgumentException("Report timeout must be positive");
+        this.workerCount = workerCount;
+        this.maxRestarts = maxRestarts;
+        this.reportTimeoutMillis = reportTimeoutMillis;
+    }
+
+    /** Plays seeds [fromSeed, toSeed) on the workers and returns the merged stats. */
+    public SimulationStats run(SimulationConfig config, long fromSeed, long toSeed)
+            throws IOException, InterruptedException {
+        if (config == null) throw new IllegalArgumentException("Config cannot be null");
+        if (toSeed <= fromSeed) throw new IllegalArgumentException("Seed range is empty");
+
+        synchronized (this) {
+            this.config = config;
+            this.total = new SimulationStats();
+            this.seedsLeft = toSeed - fromSeed;
+            this.liveWorkers = 0;
+            this.restarts = 0;
+        }
+        queue.clear();
+        long span = toSeed - fromSeed;
+        long taskSize = Math.max(SimulationWorker.REPORT_SEEDS, span / ((long) workerCount * TASKS_PER_WORKER));
+        for (long s = fromSeed; s < toSeed; s += taskSize) {
+            queue.add(new Task(nextTaskId++, s, Math.min(toSeed, s + taskSize)));
+        }
+
+        server = new ServerSocket(0, workerCount, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "sim-coordinator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        try {
+            for (int i = 0; i < workerCount; i++) launchWorker();
+
+            synchronized (this) {
+                while (seedsLeft > 0) {
+                    if (liveWorkers == 0 && !starting()) {
+                        throw new IOException("All workers failed with " + seedsLeft + " seeds left after "
+                                + restarts + " restarts");
+                    }
+                    killSlowStarters();
+                    wait(200);
+                }
+                return total;
+            }
+        } finally {
+            shutdown();
+        }
+    }
+
+    // A launched process that has not connected yet still counts as a worker
+    private boolean starting() {
+        for (Worker w : workers.values()) if (!w.connected && !w.lost) return true;
+        return false;
+    }
+
+    // Its exit is then handled like any other worker that dies before connecting
+    private void killSlowStarters() {
+        long now = System.nanoTime();
+        for (Worker w : workers.values()) {
+            if (!w.connected && !w.lost && now - w.launchedNanos > reportTimeoutMillis * 1_000_000L) {
+                w.process.destroyForcibly();
+            }
+        }
+    }
+
+    private synchronized void launchWorker() throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        int id = nextWorkerId++;
+        ProcessBuilder pb = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                SimulationWorker.class.getName(),
+                String.valueOf(server.getLocalPort()), String.valueOf(id));
+        pb.inheritIO();
+        Worker w = new Worker(id, pb.start());
+        workers.put(id, w);
+        w.process.onExit().thenRun(() -> exited(w));
+    }
+
+    // A worker that connected is handled by serve() when its socket fails
+    private synchronized void exited(Worker w) {
+        if (!w.connected) lost(w, "exited with code " + w.process.exitValue() + " before connecting");
+        notifyAll();
+    }
+
+    // Called once a worker said hello with this id
+    private synchronized Worker connected(int id) throws IOException {
+        Worker w = workers.get(id);
+        if (w == null || w.connected || w.lost) throw new IOException("Unexpected worker " + id);
+        w.connected = true;
+        return w;
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread t = new Thread(() -> serve(socket), "sim-coordinator-worker");
+                t.setDaemon(true);
+                synchronized (this) {
+                    liveWorkers++;
+                }
+                t.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) e.printStackTrace();
+            }
+        }
+    }
+
+    // Feeds one worker tasks until no seeds are left; requeues its task if the worker fails
+    private void serve(Socket socket) {
+        Task task = null;
+        Worker worker = null;
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            // Reads only happen while a task is out, so this bounds the time between two reports
+            socket.setSoTimeout(reportTimeoutMillis);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            if (in.readByte() != SimulationWorker.HELLO) throw new IOException("Worker did not say hello");
+            worker = connected(in.readInt());
+
+            while (true) {
+                task = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (task == null) {
+                    if (done()) break;
+                    continue;   // another worker may still fail and hand back work
+                }
+
+                out.writeByte(SimulationWorker.TASK);
+                out.writeLong(task.id);
+                config.write(out);
+                out.writeLong(task.next);
+                out.writeLong(task.to);
+                out.flush();
+
+                while (task.next < task.to) {
+                    if (in.readByte() != SimulationWorker.PARTIAL) throw new IOException("Expected partial result");
+                    long id = in.readLong();
+                    long from = in.readLong();
+                    long to = in.readLong();
+                    SimulationStats partial = SimulationStats.read(in);
+                    if (id != task.id || from != task.next || to > task.to) {
+                        throw new IOException("Out of order result for task " + id);
+                    }
+                    synchronized (this) {
+                        total.merge(partial);
+                        seedsLeft -= to - from;
+                        task.next = to;
+                        notifyAll();
+                    }
+                }
+                task = null;
+            }
+
+            out.writeByte(SimulationWorker.SHUTDOWN);
+            out.flush();
+        } catch (IOException | InterruptedException e) {
+            if (task != null && task.next < task.to) queue.addFirst(task);
+            // Without a hello the process is unknown; its exit or the start timeout deals with it
+            if (worker != null) {
+                worker.process.destroyForcibly();
+                lost(worker, e.toString());
+            }
+        } finally {
+            synchronized (this) {
+                liveWorkers--;
+                notifyAll();
+            }
+        }
+    }
+
+    private synchronized boolean done() {
+        return seedsLeft == 0;
+    }
+
+    // Replaces a failed worker once, however many ways its failure is noticed
+    private synchronized void lost(Worker w, String cause) {
+        if (w.lost) return;
+        w.lost = true;
+        if (!done()) replaceWorker(w.id, cause);
+    }
+
+    private synchronized void replaceWorker(int id, String cause) {
+        if (server.isClosed()) return;
+        System.err.println("Simulation worker " + id + " lost (" + cause + ")");
+        if (restarts >= maxRestarts) return;
+        restarts++;
+        try {
+            launchWorker();
+        } catch (IOException e) {
+            System.err.println("Could not start a replacement worker: " + e);
+        }
+    }
+
+    private void shutdown() throws IOException, InterruptedException {
+        server.close();
+        List<Worker> started;
+        synchronized (this) {
+            started = new ArrayList<>(workers.values());
+            workers.clear();
+        }
+        for (Worker w : started) {
+            if (!w.process.waitFor(5, TimeUnit.SECONDS)) w.process.destroyForcibly();
+        }
+    }
+
+    // java sim.SimulationCoordinator [workers] [seeds] [firstSeed] [--verify]
+    public static void main(String[] args) throws Exception {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long seeds = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000L;
+        long first = args.length > 2 ? Long.parseLong(args[2]) : 0L;
+        boolean verify = args.length > 3 && args[3].equals("--verify");
+
+        SimulationConfig config = SimulationConfig.defaults();
+        SimulationCoordinator coordinator = new SimulationCoordinator(workers, workers);
+
+        long t0 = System.nanoTime();
+        SimulationStats stats = coordinator.run(config, first, first + seeds);
+        System.out.printf("%d workers, %d seeds in %d ms%n", workers, seeds, (System.nanoTime() - t0) / 1_000_000);
+        System.out.println(stats);
+
+        if (verify) {
+            SimulationStats single = new SimulationStats();
+            config.playSeeds(first, first + seeds, single);
+            System.out.println(single.equals(stats) ? "Matches single-process run" : "MISMATCH: " + single);
+        }
+    }
+}
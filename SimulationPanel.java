@@ -0,0 +1,205 @@
+package ui;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GridLayout;
+import java.awt.RenderingHints;
+import java.util.Arrays;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.Timer;
+
+import controller.GameController;
+import model.TableRules;
+import sim.LiveSimulation;
+import sim.PlayerStrategy;
+import sim.RoundHistory;
+
+/**
+ * Live view of a background simulation of the table's rules.
+ *
+ * The simulation runs on its own worker threads; this panel only reads
+ * snapshots of their totals on a coalescing Swing timer, so the screen is
+ * redrawn at most FPS times a second however fast the workers go, and the
+ * EDT never waits on them. Cancel, Restart and Main Menu stop the workers
+ * without waiting for them to exit.
+ */
+public class SimulationPanel extends JPanel {
+
+    private static final int FPS = 15;
+
+    // Histogram bars: dealer totals 17..21 plus everything below 17 and every bust
+    private static final String[] BARS = {"<17", "17", "18", "19", "20", "21", "Bust"};
+
+    private final GameController controller;
+
+    private final JLabel title = new JLabel();
+    private final JLabel rates = new JLabel();
+    private final JLabel speed = new JLabel();
+    private final JLabel status = new JLabel();
+    private final Histogram histogram = new Histogram();
+
+    private final JButton restartBtn = new JButton("Restart");
+    private final JButton cancelBtn = new JButton("Cancel");
+    private final JButton menuBtn = new JButton("Main Menu");
+
+    private final Timer timer = new Timer(1000 / FPS, e -> render());
+
+    private TableRules rules;
+    private LiveSimulation simulation;
+
+    // Previous frame, for the current rounds per second
+    private long lastRounds;
+    private long lastNanos;
+
+    public SimulationPanel(GameController controller) {
+        this.controller = controller;
+
+        setLayout(new BorderLayout(10, 10));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        JPanel header = new JPanel(new GridLayout(4, 1, 0, 6));
+        title.setFont(title.getFont().deriveFont(Font.BOLD, 16f));
+        rates.setFont(rates.getFont().deriveFont(Font.BOLD, 14f));
+        speed.setFont(speed.getFont().deriveFont(Font.PLAIN, 14f));
+        status.setFont(status.getFont().deriveFont(Font.PLAIN, 13f));
+        header.add(title);
+        header.add(rates);
+        header.add(speed);
+        header.add(status);
+        add(header, BorderLayout.NORTH);
+
+        add(histogram, BorderLayout.CENTER);
+
+        JPanel buttons = new JPanel();
+        restartBtn.addActionListener(e -> start(rules));
+        cancelBtn.addActionListener(e -> cancel());
+        menuBtn.addActionListener(e -> controller.showMenu());
+        buttons.add(restartBtn);
+        buttons.add(cancelBtn);
+        buttons.add(menuBtn);
+        add(buttons, BorderLayout.SOUTH);
+
+        timer.setCoalesce(true);
+    }
+
+    /** Starts a fresh simulation of these rules, cancelling any running one. */
+    public void start(TableRules rules) {
+        stop();
+        this.rules = rules;
+        simulation = new LiveSimulation(rules, PlayerStrategy.basic(), System.nanoTime(),
+                LiveSimulation.defaultWorkers());
+        simulation.start();
+        lastRounds = 0;
+        lastNanos = 0;
+        title.setText("Simulating " + rules + " with basic strategy on "
+                + simulation.workers() + (simulation.workers() == 1 ? " thread" : " threads"));
+        cancelBtn.setEnabled(true);
+        render();
+        timer.start();
+    }
+
+    /** Cancels the simulation and stops repainting; called when leaving the panel. */
+    public void stop() {
+        timer.stop();
+        if (simulation != null) simulation.cancel();
+    }
+
+    // Keeps the last totals on screen
+    private void cancel() {
+        if (simulation == null) return;
+        simulation.cancel();
+        render();
+        timer.stop();
+    }
+
+    private void render() {
+        LiveSimulation.Snapshot s = simulation.snapshot();
+
+        long dRounds = s.rounds() - lastRounds;
+        long dNanos = s.elapsedNanos() - lastNanos;
+        double perSecond = dNanos > 0 ? dRounds * 1e9 / dNanos : 0.0;
+        lastRounds = s.rounds();
+        lastNanos = s.elapsedNanos();
+
+        rates.setText(String.format("Win %.2f%%   Loss %.2f%%   Push %.2f%%   EV %+.4f per round",
+                100 * s.winRate(), 100 * s.lossRate(), 100 * s.pushRate(), s.expectedValue()));
+        speed.setText(String.format("%,d rounds   %,.0f rounds/s now   %,.0f rounds/s average",
+                s.rounds(), simulation.isCancelled() ? 0.0 : perSecond, s.roundsPerSecond()));
+
+        if (simulation.failure() != null) {
+            status.setText("Simulation failed: " + simulation.failure());
+        } else if (simulation.isCancelled()) {
+            status.setText("Cancelled - Restart runs a new simulation");
+        } else {
+            status.setText("Running - dealer final totals below");
+        }
+        cancelBtn.setEnabled(!simulation.isCancelled());
+
+        histogram.update(s);
+    }
+
+    /** Bar chart of dealer final totals, as a share of rounds. */
+    private static final class Histogram extends JComponent {
+
+        private final long[] counts = new long[BARS.length];
+        private long rounds;
+
+        Histogram() {
+            setPreferredSize(new Dimension(600, 300));
+            setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+        }
+
+        void update(LiveSimulation.Snapshot s) {
+            Arrays.fill(counts, 0);
+            for (int t = 0; t <= RoundHistory.MAX_TOTAL; t++) {
+                long n = s.dealerTotal(t);
+                if (t < 17) counts[0] += n;
+                else if (t > 21) counts[BARS.length - 1] += n;
+                else counts[t - 16] += n;
+            }
+            rounds = s.rounds();
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setColor(new Color(0x1E, 0x6B, 0x3A));
+            g2.fillRect(0, 0, getWidth(), getHeight());
+
+            FontMetrics fm = g2.getFontMetrics();
+            int pad = 20;
+            int labelH = fm.getHeight();
+            int chartH = getHeight() - 2 * pad - 2 * labelH;
+            int slot = (getWidth() - 2 * pad) / BARS.length;
+            if (chartH <= 0 || slot <= 0) return;
+
+            long max = 1;
+            for (long c : counts) max = Math.max(max, c);
+
+            for (int i = 0; i < BARS.length; i++) {
+                int x = pad + i * slot;
+                int h = (int) (chartH * counts[i] / max);
+                int base = pad + labelH + chartH;
+
+                g2.setColor(Color.WHITE);
+                g2.fillRect(x + slot / 6, base - h, slot * 2 / 3, h);
+
+                String pct = rounds == 0 ? "" : String.format("%.1f%%", 100.0 * counts[i] / rounds);
+                g2.drawString(pct, x + (slot - fm.stringWidth(pct)) / 2, base - h - 4);
+                g2.drawString(BARS[i], x + (slot - fm.stringWidth(BARS[i])) / 2, base + labelH);
+            }
+        }
+    }
+}
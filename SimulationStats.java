@@ -0,0 +1,143 @@
+package sim;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Aggregated results of a simulation: plain counters only.
+ *
+ * Everything is a sum, so stats of disjoint seed ranges merge by addition
+ * in any order and the merged result is exactly that of one run over the
+ * whole range. The binary form is a fixed-size block of longs.
+ */
+public final class SimulationStats {
+
+    private long rounds;
+    private long wins;
+    private long losses;
+    private long pushes;
+    private long playerBusts;
+    private long dealerBusts;
+    private long playerCards;
+
+    // Indexed by dealer upcard value, 1 (Ace) .. 10
+    private final long[] roundsByUpcard = new long[11];
+    private final long[] winsByUpcard = new long[11];
+
+    // Indexed by dealer final total (> 21 is a bust)
+    private final long[] dealerTotals = new long[RoundHistory.MAX_TOTAL + 1];
+
+    public void add(RoundSimulator sim, byte outcome) {
+        rounds++;
+        if (outcome == RoundHistory.WIN) wins++;
+        else if (outcome == RoundHistory.LOSS) losses++;
+        else pushes++;
+
+        if (sim.playerTotal() > 21) playerBusts++;
+        else if (sim.dealerTotal() > 21) dealerBusts++;
+        playerCards += sim.playerCards();
+
+        int up = sim.upcard();
+        roundsByUpcard[up]++;
+        if (outcome == RoundHistory.WIN) winsByUpcard[up]++;
+        dealerTotals[sim.dealerTotal()]++;
+    }
+
+    public void merge(SimulationStats other) {
+        rounds += other.rounds;
+        wins += other.wins;
+        losses += other.losses;
+        pushes += other.pushes;
+        playerBusts += other.playerBusts;
+        dealerBusts += other.dealerBusts;
+        playerCards += other.playerCards;
+        for (int i = 0; i < roundsByUpcard.length; i++) {
+            roundsByUpcard[i] += other.roundsByUpcard[i];
+            winsByUpcard[i] += other.winsByUpcard[i];
+        }
+        for (int i = 0; i < dealerTotals.length; i++) dealerTotals[i] += other.dealerTotals[i];
+    }
+
+    public long rounds()      { return rounds; }
+    public long wins()        { return wins; }
+    public long losses()      { return losses; }
+    public long pushes()      { return pushes; }
+    public long playerBusts() { return playerBusts; }
+    public long dealerBusts() { return dealerBusts; }
+
+    // Average score per round for the player (+1 win, -1 loss)
+    public double expectedScore() {
+        return rounds == 0 ? 0.0 : (double) (wins - losses) / rounds;
+    }
+
+    public double winRate(int upcard) {
+        return roundsByUpcard[upcard] == 0 ? 0.0 : (double) winsByUpcard[upcard] / roundsByUpcard[upcard];
+    }
+
+    public long dealerTotalCount(int total) {
+        return dealerTotals[total];
+    }
+
+    public double averagePlayerCards() {
+        return rounds == 0 ? 0.0 : (double) playerCards / rounds;
+    }
+
+    // -------- Binary form --------
+
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(rounds);
+        out.writeLong(wins);
+        out.writeLong(losses);
+        out.writeLong(pushes);
+        out.writeLong(playerBusts);
+        out.writeLong(dealerBusts);
+        out.writeLong(playerCards);
+        for (long v : roundsByUpcard) out.writeLong(v);
+        for (long v : winsByUpcard) out.writeLong(v);
+        for (long v : dealerTotals) out.writeLong(v);
+    }
+
+    public static SimulationStats read(DataInput in) throws IOException {
+        SimulationStats s = new SimulationStats();
+        s.rounds = in.readLong();
+        s.wins = in.readLong();
+        s.losses = in.readLong();
+        s.pushes = in.readLong();
+        s.playerBusts = in.readLong();
+        s.dealerBusts = in.readLong();
+        s.playerCards = in.readLong();
+        for (int i = 0; i < s.roundsByUpcard.length; i++) s.roundsByUpcard[i] = in.readLong();
+        for (int i = 0; i < s.winsByUpcard.length; i++) s.winsByUpcard[i] = in.readLong();
+        for (int i = 0; i < s.dealerTotals.length; i++) s.dealerTotals[i] = in.readLong();
+        return s;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SimulationStats s
+                && rounds == s.rounds && wins == s.wins && losses == s.losses && pushes == s.pushes
+                && playerBusts == s.playerBusts && dealerBusts == s.dealerBusts
+                && playerCards == s.playerCards
+                && Arrays.equals(roundsByUpcard, s.roundsByUpcard)
+                && Arrays.equals(winsByUpcard, s.winsByUpcard)
+                && Arrays.equals(dealerTotals, s.dealerTotals);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(rounds) * 31 + Long.hashCode(wins - losses) + Arrays.hashCode(dealerTotals);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rounds: win %.4f  loss %.4f  push %.4f  player bust %.4f  dealer bust %.4f  EV %+.5f",
+                rounds, ratio(wins), ratio(losses), ratio(pushes), ratio(playerBusts), ratio(dealerBusts),
+                expectedScore());
+    }
+
+    private double ratio(long n) {
+        return rounds == 0 ? 0.0 : (double) n / rounds;
+    }
+}
@@ -0,0 +1,86 @@
+package sim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Worker process of a SimulationCoordinator run.
+ *
+ * Connects back to the coordinator on localhost, says hello with its id and
+ * then plays whatever seed ranges it is sent. Results are streamed back as
+ * partial stats every REPORT_SEEDS seeds, so a crash loses at most that much
+ * work. Exits when told to shut down or when the coordinator goes away.
+ *
+ * Usage (started by the coordinator): java sim.SimulationWorker port id
+ */
+public final class SimulationWorker {
+
+    // Coordinator -> worker
+    static final byte TASK = 1;
+    static final byte SHUTDOWN = 2;
+
+    // Worker -> coordinator
+    static final byte HELLO = 10;
+    static final byte PARTIAL = 11;
+
+    // Seeds played between two partial results
+    static final int REPORT_SEEDS = 256;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java sim.SimulationWorker port id");
+            System.exit(2);
+        }
+        int port = Integer.parseInt(args[0]);
+        int id = Integer.parseInt(args[1]);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            out.writeByte(HELLO);
+            out.writeInt(id);
+            out.flush();
+
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    return;   // coordinator closed the connection
+                }
+                if (type == SHUTDOWN) return;
+                if (type != TASK) throw new IOException("Unexpected message " + type);
+
+                long taskId = in.readLong();
+                SimulationConfig config = SimulationConfig.read(in);
+                long from = in.readLong();
+                long to = in.readLong();
+                play(taskId, config, from, to, out);
+            }
+        }
+    }
+
+    private static void play(long taskId, SimulationConfig config, long from, long to,
+                             DataOutputStream out) throws IOException {
+        for (long start = from; start < to; start += REPORT_SEEDS) {
+            long end = Math.min(to, start + REPORT_SEEDS);
+            SimulationStats partial = new SimulationStats();
+            config.playSeeds(start, end, partial);
+
+            out.writeByte(PARTIAL);
+            out.writeLong(taskId);
+            out.writeLong(start);
+            out.writeLong(end);
+            partial.write(out);
+            out.flush();
+        }
+    }
+}
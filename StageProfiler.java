@@ -0,0 +1,155 @@
+package controller;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import event.GameEvent;
+import event.GameEventConsumer;
+
+/**
+ * Allocation and CPU accounting for the stages of a round.
+ *
+ * Turned on with -Dblackjack.profile=true. ENABLED is a static final
+ * constant, so when it is off the JIT folds every enter()/exit() call away
+ * and the game runs exactly as without the profiler.
+ *
+ * When on, each thread keeps a small stack of the stages it is in. At every
+ * enter()/exit() the bytes it allocated and the CPU time it used since the
+ * previous mark (ThreadMXBean, per thread) are charged to the stage on top,
+ * so nested stages are counted once: the snapshot built while dealing is
+ * RENDER, not DEAL. Work outside any stage is not counted.
+ */
+public final class StageProfiler {
+
+    public static final boolean ENABLED = Boolean.getBoolean("blackjack.profile");
+
+    public enum Stage { DEAL, PLAYER, DEALER, SETTLE, RENDER, PERSIST }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final int MAX_DEPTH = 16;
+
+    private static final com.sun.management.ThreadMXBean THREADS = ENABLED ? threadBean() : null;
+
+    private static final AtomicLongArray bytes = new AtomicLongArray(STAGES.length);
+    private static final AtomicLongArray cpuNanos = new AtomicLongArray(STAGES.length);
+    private static final AtomicLongArray calls = new AtomicLongArray(STAGES.length);
+    private static final AtomicLong rounds = new AtomicLong();
+
+    private static final ThreadLocal<Frame> FRAME = ThreadLocal.withInitial(Frame::new);
+
+    // Stages this thread is in, and its counters at the last mark
+    private static final class Frame {
+        final Stage[] stack = new Stage[MAX_DEPTH];
+        int depth;
+        long lastBytes;
+        long lastCpu;
+    }
+
+    private StageProfiler() {
+    }
+
+    public static void enter(Stage stage) {
+        if (!ENABLED) return;
+        Frame f = FRAME.get();
+        mark(f);
+        if (f.depth < MAX_DEPTH) f.stack[f.depth] = stage;
+        f.depth++;
+        calls.incrementAndGet(stage.ordinal());
+    }
+
+    /**
+     * Leaves the stage. Stages entered inside it and never left (an
+     * exception skipped their exit) are closed too, so the stack cannot drift.
+     */
+    public static void exit(Stage stage) {
+        if (!ENABLED) return;
+        Frame f = FRAME.get();
+        mark(f);
+        while (f.depth > 0) {
+            f.depth--;
+            if (f.depth >= MAX_DEPTH || f.stack[f.depth] == stage) break;
+        }
+    }
+
+    // Called once per settled round; the report divides by this
+    public static void roundFinished() {
+        if (!ENABLED) return;
+        rounds.incrementAndGet();
+    }
+
+    // Runs an event consumer (on its own thread) inside a stage
+    public static GameEventConsumer wrap(Stage stage, GameEventConsumer consumer) {
+        if (!ENABLED) return consumer;
+        return new GameEventConsumer() {
+            @Override
+            public void onEvent(GameEvent event, long sequence, boolean endOfBatch) throws Exception {
+                enter(stage);
+                try {
+                    consumer.onEvent(event, sequence, endOfBatch);
+                } finally {
+                    exit(stage);
+                }
+            }
+
+            @Override
+            public void onDropped(long count) {
+                consumer.onDropped(count);
+            }
+        };
+    }
+
+    public static long rounds()                { return rounds.get(); }
+    public static long bytes(Stage stage)      { return bytes.get(stage.ordinal()); }
+    public static long cpuNanos(Stage stage)   { return cpuNanos.get(stage.ordinal()); }
+    public static long calls(Stage stage)      { return calls.get(stage.ordinal()); }
+
+    public static void reset() {
+        for (int i = 0; i < STAGES.length; i++) {
+            bytes.set(i, 0);
+            cpuNanos.set(i, 0);
+            calls.set(i, 0);
+        }
+        rounds.set(0);
+    }
+
+    /** Table of bytes and CPU nanoseconds per round for every stage. */
+    public static String report() {
+        if (!ENABLED) return "Stage profiling is off (run with -Dblackjack.profile=true)";
+        long n = Math.max(1, rounds());
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Stage profile over %d rounds%n", rounds()));
+        sb.append(String.format("%-8s %10s %14s %14s%n", "stage", "calls", "bytes/round", "cpu ns/round"));
+        long totalBytes = 0, totalCpu = 0;
+        for (Stage s : STAGES) {
+            totalBytes += bytes(s);
+            totalCpu += cpuNanos(s);
+            sb.append(String.format("%-8s %10d %14d %14d%n", s, calls(s), bytes(s) / n, cpuNanos(s) / n));
+        }
+        sb.append(String.format("%-8s %10s %14d %14d%n", "total", "", totalBytes / n, totalCpu / n));
+        return sb.toString();
+    }
+
+    // Charges what this thread used since its last mark to the stage it is in
+    private static void mark(Frame f) {
+        long b = THREADS.getCurrentThreadAllocatedBytes();
+        long c = THREADS.getCurrentThreadCpuTime();
+        if (f.depth > 0 && f.depth <= MAX_DEPTH) {
+            int i = f.stack[f.depth - 1].ordinal();
+            bytes.addAndGet(i, b - f.lastBytes);
+            cpuNanos.addAndGet(i, c - f.lastCpu);
+        }
+        f.lastBytes = b;
+        f.lastCpu = c;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)
+                || !bean.isThreadAllocatedMemorySupported() || !bean.isCurrentThreadCpuTimeSupported()) {
+            throw new IllegalStateException("This JVM cannot measure per-thread allocation and CPU time");
+        }
+        bean.setThreadAllocatedMemoryEnabled(true);
+        bean.setThreadCpuTimeEnabled(true);
+        return bean;
+    }
+}
@@ -0,0 +1,268 @@
+package sim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import model.Deck;
+
+/**
+ * Genetic search for the best hit/stand table against our dealer rule.
+ *
+ * Every candidate is scored on the same list of shoe seeds (common random
+ * numbers), so two tables only differ in fitness where they actually play a
+ * hand differently, and far fewer rounds are needed to rank them. Because
+ * the seeds never change, a table's fitness never changes either and is
+ * cached by table; elites and duplicate children cost nothing to re-score.
+ *
+ * The population is evaluated in parallel on the common fork/join pool. The
+ * population is written to a checkpoint file after each generation and the
+ * random numbers of a generation depend only on (seed, generation), so a run
+ * resumed from its checkpoint ends up exactly where an uninterrupted run would.
+ */
+public class StrategyOptimizer {
+
+    static final int MAGIC = 0x424A4741;   // "BJGA"
+
+    private final int populationSize;
+    private final int eliteCount;
+    private final int tournamentSize = 3;
+    private final double mutationRate;
+    private final long seed;
+    private final int roundsPerShoe;
+    private final long[] shoeSeeds;
+
+    private final ConcurrentHashMap<StrategyTable, Double> fitnessCache = new ConcurrentHashMap<>();
+
+    private StrategyTable[] population;
+    private double[] fitness;
+    private int generation;
+
+    // Best table of the last evaluated generation
+    private StrategyTable best;
+    private double bestFitness = Double.NaN;
+
+    public StrategyOptimizer(int populationSize, long roundsPerCandidate, double mutationRate, long seed) {
+        if (populationSize < 4) throw new IllegalArgumentException("Population must be at least 4");
+        if (roundsPerCandidate < 1) throw new IllegalArgumentException("Rounds must be positive");
+        if (!(mutationRate >= 0.0 && mutationRate <= 1.0)) {
+            throw new IllegalArgumentException("Mutation rate must be in [0, 1]");
+        }
+
+        this.populationSize = populationSize;
+        this.eliteCount = Math.max(1, populationSize / 10);
+        this.mutationRate = mutationRate;
+        this.seed = seed;
+
+        // About one shoe's worth of rounds per seed, so every evaluation sees many shuffles
+        int shoes = (int) Math.max(1, Math.min(1 << 16, roundsPerCandidate / 40));
+        this.roundsPerShoe = (int) Math.max(1, roundsPerCandidate / shoes);
+        this.shoeSeeds = new long[shoes];
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < shoes; i++) shoeSeeds[i] = seeds.nextLong();
+
+        this.population = initialPopulation();
+    }
+
+    public int generation()            { return generation; }
+    public int cacheSize()             { return fitnessCache.size(); }
+    public long roundsPerCandidate()   { return (long) roundsPerShoe * shoeSeeds.length; }
+
+    // Stand-on-N tables for every N, then mutated copies of them
+    private StrategyTable[] initialPopulation() {
+        SplittableRandom rng = generationRandom(-1);
+        StrategyTable[] pop = new StrategyTable[populationSize];
+        int seeded = Math.min(populationSize, 8);
+        for (int i = 0; i < seeded; i++) pop[i] = StrategyTable.of(PlayerStrategy.standAt(12 + i));
+        for (int i = seeded; i < populationSize; i++) {
+            pop[i] = pop[rng.nextInt(seeded)].mutate(0.1, rng);
+        }
+        return pop;
+    }
+
+    // Average score per round (+1 win, -1 loss) over the fixed shoe seeds
+    public double fitness(StrategyTable table) {
+        Double cached = fitnessCache.get(table);
+        if (cached != null) return cached;
+
+        long score = 0;
+        for (long shoeSeed : shoeSeeds) {
+            RoundSimulator sim = new RoundSimulator(new Deck(shoeSeed), table);
+            for (int r = 0; r < roundsPerShoe; r++) {
+                byte result = sim.playRound();
+                if (result == RoundHistory.WIN) score++;
+                else if (result == RoundHistory.LOSS) score--;
+            }
+        }
+        double f = (double) score / roundsPerCandidate();
+        fitnessCache.putIfAbsent(table, f);
+        return f;
+    }
+
+    // Scores the current population in parallel and sorts it best first
+    private void evaluate() {
+        StrategyTable[] pop = population;
+        double[] f = new double[pop.length];
+        IntStream.range(0, pop.length).parallel().forEach(i -> f[i] = fitness(pop[i]));
+
+        Integer[] order = new Integer[pop.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingDouble(i -> -f[i]));
+
+        population = new StrategyTable[pop.length];
+        fitness = new double[pop.length];
+        for (int i = 0; i < order.length; i++) {
+            population[i] = pop[order[i]];
+            fitness[i] = f[order[i]];
+        }
+        best = population[0];
+        bestFitness = fitness[0];
+    }
+
+    // Elites survive unchanged; the rest are crossed-over, mutated tournament winners
+    private void breed() {
+        SplittableRandom rng = generationRandom(generation);
+        StrategyTable[] next = new StrategyTable[populationSize];
+        System.arraycopy(population, 0, next, 0, eliteCount);
+        for (int i = eliteCount; i < populationSize; i++) {
+            StrategyTable a = select(rng);
+            StrategyTable b = select(rng);
+            next[i] = a.crossover(b, rng).mutate(mutationRate, rng);
+        }
+        population = next;
+        fitness = null;
+    }
+
+    // Population is sorted, so the lowest index drawn is the fittest
+    private StrategyTable select(SplittableRandom rng) {
+        int best = populationSize;
+        for (int k = 0; k < tournamentSize; k++) best = Math.min(best, rng.nextInt(populationSize));
+        return population[best];
+    }
+
+    private SplittableRandom generationRandom(int gen) {
+        return new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (gen + 2L)));
+    }
+
+    /**
+     * Runs until the given generation count is reached, writing the checkpoint
+     * (if not null) after each one. Returns the best table of the last generation.
+     *
+     * Every generation ends by breeding the next population, so the checkpoint
+     * always holds the population still to be evaluated.
+     */
+    public StrategyTable run(int generations, Path checkpoint) throws IOException {
+        while (generation < generations) {
+            long t0 = System.nanoTime();
+            evaluate();
+            generation++;
+            System.out.printf("gen %4d  best %+.5f  median %+.5f  cache %d  %d ms%n",
+                    generation, fitness[0], fitness[populationSize / 2], fitnessCache.size(),
+                    (System.nanoTime() - t0) / 1_000_000);
+
+            breed();
+            if (checkpoint != null) saveCheckpoint(checkpoint);
+        }
+        return best();
+    }
+
+    public StrategyTable best() {
+        if (best == null) evaluate();
+        return best;
+    }
+
+    public double bestFitness() {
+        best();
+        return bestFitness;
+    }
+
+    // -------- Checkpoint --------
+
+    // [magic][seed][generation][population][WORDS][table words...][has best][best words][best fitness]
+    // Written to a temp file, then moved over the old checkpoint
+    public void saveCheckpoint(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream os = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+            out.writeInt(MAGIC);
+            out.writeLong(seed);
+            out.writeInt(generation);
+            out.writeInt(populationSize);
+            out.writeInt(StrategyTable.WORDS);
+            for (StrategyTable t : population) {
+                for (int w = 0; w < StrategyTable.WORDS; w++) out.writeLong(t.word(w));
+            }
+            out.writeBoolean(best != null);
+            if (best != null) {
+                for (int w = 0; w < StrategyTable.WORDS; w++) out.writeLong(best.word(w));
+                out.writeDouble(bestFitness);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Restores generation and population; the optimizer must have been built with the same settings
+    public void loadCheckpoint(Path file) throws IOException {
+        try (InputStream is = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(is))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not an optimizer checkpoint: " + file);
+            if (in.readLong() != seed) throw new IOException("Checkpoint was written with another seed");
+            int gen = in.readInt();
+            int size = in.readInt();
+            if (size != populationSize || in.readInt() != StrategyTable.WORDS) {
+                throw new IOException("Checkpoint population does not match");
+            }
+
+            StrategyTable[] pop = new StrategyTable[size];
+            long[] words = new long[StrategyTable.WORDS];
+            for (int i = 0; i < size; i++) {
+                for (int w = 0; w < words.length; w++) words[w] = in.readLong();
+                pop[i] = StrategyTable.fromWords(words);
+            }
+            if (in.readBoolean()) {
+                for (int w = 0; w < words.length; w++) words[w] = in.readLong();
+                best = StrategyTable.fromWords(words);
+                bestFitness = in.readDouble();
+            } else {
+                best = null;
+                bestFitness = Double.NaN;
+            }
+            population = pop;
+            fitness = null;
+            generation = gen;
+        }
+    }
+
+    // java sim.StrategyOptimizer [generations] [population] [roundsPerCandidate] [seed] [checkpoint]
+    public static void main(String[] args) throws IOException {
+        int generations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int population = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        long rounds = args.length > 2 ? Long.parseLong(args[2]) : 400_000L;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+        Path checkpoint = Paths.get(args.length > 4 ? args[4] : "strategy_optimizer.ckpt");
+
+        StrategyOptimizer opt = new StrategyOptimizer(population, rounds, 0.02, seed);
+        if (Files.exists(checkpoint)) {
+            opt.loadCheckpoint(checkpoint);
+            System.out.println("Resumed at generation " + opt.generation() + " from " + checkpoint);
+        }
+
+        StrategyTable best = opt.run(generations, checkpoint);
+        System.out.printf("Best fitness %+.5f per round (stand on 17: %+.5f)%n",
+                opt.bestFitness(), opt.fitness(StrategyTable.of(PlayerStrategy.dealerRule())));
+        System.out.print(best);
+    }
+}
@@ -0,0 +1,152 @@
+package sim;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Hit/stand table indexed by (player best total, soft flag, dealer upcard).
+ *
+ * Totals 4..21, upcards 1 (Ace) .. 10; 360 cells packed into six longs. A
+ * table is immutable: mutate() and crossover() return new tables, so they can
+ * be shared between threads and used as cache keys.
+ *
+ * Only 260 cells can change play: 21 always stands and no hand is soft
+ * below 12. The other 100 are kept clear and never mutated, so two tables
+ * that play alike are equal and share a fitness cache entry.
+ */
+public final class StrategyTable implements PlayerStrategy {
+
+    public static final int MIN_TOTAL = 4;
+    public static final int MAX_TOTAL = 21;
+    public static final int TOTALS = MAX_TOTAL - MIN_TOTAL + 1;
+    public static final int UPCARDS = 10;
+    public static final int CELLS = TOTALS * 2 * UPCARDS;
+    static final int WORDS = (CELLS + 63) / 64;
+
+    // Cells hits() can read: hard 4..20 and soft 12..20
+    private static final long[] LIVE = new long[WORDS];
+    private static final int[] LIVE_CELLS;
+
+    static {
+        int n = 0;
+        for (int t = MIN_TOTAL; t < MAX_TOTAL; t++) {
+            for (int soft = 0; soft < 2; soft++) {
+                if (soft == 1 && t < 12) continue;
+                for (int up = 1; up <= UPCARDS; up++) {
+                    set(LIVE, index(t, soft == 1, up));
+                    n++;
+                }
+            }
+        }
+        LIVE_CELLS = new int[n];
+        n = 0;
+        for (int i = 0; i < CELLS; i++) {
+            if ((LIVE[i >>> 6] & (1L << i)) != 0) LIVE_CELLS[n++] = i;
+        }
+    }
+
+    private final long[] words;
+    private final int hash;
+
+    // Takes ownership of words and clears the cells no hand reaches
+    private StrategyTable(long[] words) {
+        for (int i = 0; i < WORDS; i++) words[i] &= LIVE[i];
+        this.words = words;
+        this.hash = Arrays.hashCode(words);
+    }
+
+    // Table that plays exactly like the given strategy
+    public static StrategyTable of(PlayerStrategy strategy) {
+        long[] w = new long[WORDS];
+        for (int t = MIN_TOTAL; t <= MAX_TOTAL; t++) {
+            for (int soft = 0; soft < 2; soft++) {
+                // Any hand with this best total / softness: soft t is (t - 11) hard with one Ace
+                int hard = soft == 1 ? t - 10 : t;
+                int aces = soft;
+                if (soft == 1 && hard < 2) continue;   // no soft total below 12
+                for (int up = 1; up <= UPCARDS; up++) {
+                    if (strategy.shouldHit(hard, aces, up)) set(w, index(t, soft == 1, up));
+                }
+            }
+        }
+        return new StrategyTable(w);
+    }
+
+    static StrategyTable fromWords(long[] words) {
+        if (words.length != WORDS) throw new IllegalArgumentException("Expected " + WORDS + " words");
+        return new StrategyTable(words.clone());
+    }
+
+    long word(int i) {
+        return words[i];
+    }
+
+    static int index(int total, boolean soft, int upcard) {
+        return ((total - MIN_TOTAL) * 2 + (soft ? 1 : 0)) * UPCARDS + (upcard - 1);
+    }
+
+    public boolean hits(int total, boolean soft, int upcard) {
+        if (total < MIN_TOTAL || total >= MAX_TOTAL) return total < MIN_TOTAL;
+        int i = index(total, soft, upcard);
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    @Override
+    public boolean shouldHit(int hardSum, int aceCount, int dealerUpcard) {
+        int total = RoundSimulator.bestTotal(hardSum, aceCount);
+        return hits(total, total != hardSum, dealerUpcard);
+    }
+
+    // Flips each reachable cell with the given probability
+    public StrategyTable mutate(double rate, SplittableRandom rng) {
+        long[] w = words.clone();
+        for (int i : LIVE_CELLS) {
+            if (rng.nextDouble() < rate) w[i >>> 6] ^= 1L << i;
+        }
+        return new StrategyTable(w);
+    }
+
+    // Takes each (total, soft) row from one parent or the other, keeping per-upcard decisions together
+    public StrategyTable crossover(StrategyTable other, SplittableRandom rng) {
+        long[] w = words.clone();
+        for (int row = 0; row < TOTALS * 2; row++) {
+            if (!rng.nextBoolean()) continue;
+            for (int i = row * UPCARDS; i < (row + 1) * UPCARDS; i++) {
+                long bit = 1L << i;
+                w[i >>> 6] = (w[i >>> 6] & ~bit) | (other.words[i >>> 6] & bit);
+            }
+        }
+        return new StrategyTable(w);
+    }
+
+    private static void set(long[] w, int i) {
+        w[i >>> 6] |= 1L << i;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof StrategyTable t && hash == t.hash && Arrays.equals(words, t.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    // Chart like a basic-strategy card: H = hit, . = stand
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("       2 3 4 5 6 7 8 9 T A\n");
+        for (int soft = 0; soft < 2; soft++) {
+            for (int t = soft == 1 ? 12 : MIN_TOTAL; t < MAX_TOTAL; t++) {
+                sb.append(soft == 1 ? "S" : "H").append(String.format("%-3d", t)).append("   ");
+                for (int k = 0; k < UPCARDS; k++) {
+                    int up = k == UPCARDS - 1 ? 1 : k + 2;
+                    sb.append(hits(t, soft == 1, up) ? 'H' : '.').append(' ');
+                }
+                sb.append('\n');
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,515 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import controller.StageProfiler.Stage;
+import event.GameEvent;
+import model.Card;
+import model.ComputerPlayer;
+import model.Deck;
+import model.HandArena;
+import model.HumanPlayer;
+import model.TableRules;
+import sim.RoundHistory;
+
+/**
+ * The rounds of one table: dealing, the player's actions (hit, stand,
+ * double, split, insurance), the dealer's draws and the scoring, with no
+ * window, timers or event bus attached. GameController and HeadlessTable
+ * both play through this class and differ only in what they do with the
+ * Listener callbacks, so the two cannot drift apart.
+ *
+ * The dealer does not play by itself: once every player hand is played the
+ * listener is told, and its owner calls dealerStep() until it returns false
+ * (on a Swing timer, or all at once). Not thread-safe.
+ */
+final class TableRound {
+
+    private static final String CARD_BACK = "/images/cards/back.jpg";
+
+    /** What the owner of a table hears about; called on the thread playing it. */
+    interface Listener {
+
+        // One GameEvent's worth of news: type, seat and card code (or -1)
+        void event(GameEvent.Type type, int seat, int cardCode);
+
+        // The table changed in a way a snapshot would show
+        void changed();
+
+        // Every player hand is played and at least one still stands
+        void dealerTurn();
+
+        // The shoe is ready and the round numbered; the first card is dealt next
+        default void roundStarting() {
+        }
+
+        // One player hand was scored; the round is not marked over yet
+        default void handSettled(int hand, byte outcome) {
+        }
+
+        // Scores and summary are final
+        default void roundSettled() {
+        }
+    }
+
+    private final TableRules rules;
+    private final Deck deck;
+    private final HumanPlayer human;
+    private final ComputerPlayer computer = new ComputerPlayer("Dealer");
+    private final Listener listener;
+
+    private int roundNumber;
+    private boolean playerTurn;
+    private boolean roundOver = true;
+    private boolean hideDealerFirstCard;
+
+    // The player's hands (several after a split); human still holds every card for the discard tray
+    private final HandArena hands = new HandArena();
+    private int activeHand;
+    private boolean insuranceOffered;
+    private boolean insuranceTaken;
+    private int playerStartTotal;
+
+    private String lastRoundSummary = "";
+
+    // Image path lists shared between snapshots until that hand changes (null = rebuild)
+    private List<List<String>> playerPaths;
+    private List<String> dealerPaths;
+    private boolean dealerPathsHidden;
+
+    TableRound(TableRules rules, Deck deck, String playerName, Listener listener) {
+        if (rules == null) throw new IllegalArgumentException("Rules cannot be null");
+        if (deck == null) throw new IllegalArgumentException("Deck cannot be null");
+        if (listener == null) throw new IllegalArgumentException("Listener cannot be null");
+        this.rules = rules;
+        this.deck = deck;
+        this.human = new HumanPlayer(playerName);
+        this.listener = listener;
+        // The snapshot always shows at least one (empty) player hand
+        clearHands();
+    }
+
+    /**
+     * Scores and the round count back to zero. With freshShoe every card
+     * goes back into the shoe, which is shuffled; otherwise the shoe carries
+     * on and the cards on the table are discarded by the next startRound().
+     */
+    void newGame(boolean freshShoe) {
+        if (freshShoe) {
+            clearHands();
+            deck.reset();
+            deck.shuffle();
+            listener.event(GameEvent.Type.RESHUFFLED, GameEvent.SEAT_NONE, -1);
+        }
+        human.resetGameScore();
+        computer.resetGameScore();
+        roundNumber = 0;
+        playerTurn = false;
+        roundOver = true;
+        lastRoundSummary = "";
+    }
+
+    /* ================= ROUNDS ================= */
+
+    void startRound() {
+        StageProfiler.enter(Stage.DEAL);
+        try {
+            roundNumber++;
+            roundOver = false;
+            playerTurn = true;
+            hideDealerFirstCard = true;
+            lastRoundSummary = "";
+
+            // Used cards go to the discard tray (or back into a continuous shoe)
+            deck.discardAll(human.getCards());
+            deck.discardAll(computer.getCards());
+            clearHands();
+
+            // Cut card reached: shuffle the tray back in between rounds
+            if (deck.needsReshuffle()) {
+                deck.reshuffle();
+                listener.event(GameEvent.Type.RESHUFFLED, GameEvent.SEAT_NONE, -1);
+            }
+
+            listener.roundStarting();
+            dealInitialCards();
+            listener.changed();
+
+            // With an Ace up insurance is offered before the dealer looks at the hole card
+            if (rules.insurance() && dealerUpcard() == 1) {
+                insuranceOffered = true;
+                listener.changed();
+            } else {
+                peekForBlackjack();
+            }
+        } finally {
+            StageProfiler.exit(Stage.DEAL);
+        }
+    }
+
+    private void dealInitialCards() {
+        ensureCardsAvailable(4);
+        dealToHand(0);
+        dealToDealer();
+        dealToHand(0);
+        dealToDealer();
+        playerStartTotal = hands.total(0);
+    }
+
+    private void dealToHand(int hand) {
+        Card c = deck.draw();
+        human.addCard(c);
+        hands.add(hand, c.code());
+        playerPaths = null;
+        listener.event(GameEvent.Type.CARD_DRAWN, GameEvent.playerSeat(hand), c.code());
+    }
+
+    private void dealToDealer() {
+        Card c = deck.draw();
+        computer.addCard(c);
+        dealerPaths = null;
+        listener.event(GameEvent.Type.CARD_DRAWN, GameEvent.SEAT_DEALER, c.code());
+    }
+
+    private void clearHands() {
+        human.resetHand();
+        computer.resetHand();
+        hands.clear();
+        hands.open(1);
+        activeHand = 0;
+        insuranceOffered = false;
+        insuranceTaken = false;
+        playerPaths = null;
+        dealerPaths = null;
+    }
+
+    // Settles the round at once if the dealer has blackjack; true when the round is over
+    private boolean peekForBlackjack() {
+        if (!rules.peeksWith(dealerUpcard())) return false;
+        if (computer.getCards().size() != 2 || computer.bestTotal() != 21) return false;
+        settle(true);
+        return true;
+    }
+
+    private void ensureCardsAvailable(int needed) {
+        if (deck.remaining() < needed) {
+            deck.reshuffle();
+            listener.event(GameEvent.Type.RESHUFFLED, GameEvent.SEAT_NONE, -1);
+        }
+    }
+
+    /* ================= PLAYER ACTIONS ================= */
+
+    // Each action returns false, changing nothing, when it is not open to the player right now
+
+    boolean hit() {
+        StageProfiler.enter(Stage.PLAYER);
+        try {
+            if (!canPlayerAct()) return false;
+            if (!resolveInsurance(false)) return true;
+
+            listener.event(GameEvent.Type.PLAYER_HIT, GameEvent.playerSeat(activeHand), -1);
+            ensureCardsAvailable(1);
+            dealToHand(activeHand);
+            listener.changed();
+
+            if (hands.isBust(activeHand)) nextHand();
+            return true;
+        } finally {
+            StageProfiler.exit(Stage.PLAYER);
+        }
+    }
+
+    boolean stand() {
+        StageProfiler.enter(Stage.PLAYER);
+        try {
+            if (!canPlayerAct()) return false;
+            if (!resolveInsurance(false)) return true;
+
+            nextHand();
+            return true;
+        } finally {
+            StageProfiler.exit(Stage.PLAYER);
+        }
+    }
+
+    // Doubles the bet of the active hand, which then gets exactly one more card
+    boolean doubleDown() {
+        StageProfiler.enter(Stage.PLAYER);
+        try {
+            if (!canPlayerAct() || !rules.canDouble(hands, activeHand)) return false;
+            if (!resolveInsurance(false)) return true;
+
+            hands.doubleBet(activeHand);
+            listener.event(GameEvent.Type.PLAYER_DOUBLED, GameEvent.playerSeat(activeHand), -1);
+            ensureCardsAvailable(1);
+            dealToHand(activeHand);
+            listener.changed();
+            nextHand();
+            return true;
+        } finally {
+            StageProfiler.exit(Stage.PLAYER);
+        }
+    }
+
+    // Splits the active pair; the new hand waits its turn and gets its second card then
+    boolean split() {
+        StageProfiler.enter(Stage.PLAYER);
+        try {
+            if (!canPlayerAct() || !rules.canSplit(hands, activeHand)) return false;
+            if (!resolveInsurance(false)) return true;
+
+            hands.split(activeHand);
+            listener.event(GameEvent.Type.PLAYER_SPLIT, GameEvent.playerSeat(activeHand), -1);
+            ensureCardsAvailable(1);
+            dealToHand(activeHand);
+            listener.changed();
+
+            if (rules.isSplitAces(hands, activeHand)) nextHand();
+            return true;
+        } finally {
+            StageProfiler.exit(Stage.PLAYER);
+        }
+    }
+
+    boolean insure() {
+        StageProfiler.enter(Stage.PLAYER);
+        try {
+            if (!canPlayerAct() || !insuranceOffered) return false;
+            if (resolveInsurance(true)) listener.changed();
+            return true;
+        } finally {
+            StageProfiler.exit(Stage.PLAYER);
+        }
+    }
+
+    /**
+     * Any action other than taking insurance declines it. The dealer then
+     * peeks; returns false when that ended the round.
+     */
+    private boolean resolveInsurance(boolean take) {
+        if (!insuranceOffered) return true;
+        insuranceOffered = false;
+        insuranceTaken = take;
+        if (take) listener.event(GameEvent.Type.INSURANCE_TAKEN, GameEvent.SEAT_PLAYER, -1);
+        return !peekForBlackjack();
+    }
+
+    // Moves on to the next unfinished hand, or to the dealer once every hand is played
+    private void nextHand() {
+        while (++activeHand < hands.handCount()) {
+            if (hands.cardCount(activeHand) == 1) {
+                ensureCardsAvailable(1);
+                dealToHand(activeHand);
+            }
+            // Split Aces take their one card and stand
+            if (!rules.isSplitAces(hands, activeHand)) {
+                listener.changed();
+                return;
+            }
+        }
+        activeHand = hands.handCount() - 1;
+
+        boolean anyStanding = false;
+        for (int h = 0; h < hands.handCount(); h++) {
+            if (!hands.isBust(h)) anyStanding = true;
+        }
+        if (!anyStanding) {
+            settle(false);
+            return;
+        }
+
+        playerTurn = false;
+        hideDealerFirstCard = false;
+        listener.changed();
+        listener.event(GameEvent.Type.PLAYER_STOOD, GameEvent.SEAT_PLAYER, -1);
+
+        listener.dealerTurn();
+    }
+
+    /* ================= DEALER LOGIC ================= */
+
+    // One dealer draw, or the settlement once the dealer is done; false when there is nothing left to do
+    boolean dealerStep() {
+        StageProfiler.enter(Stage.DEALER);
+        try {
+            if (roundOver || playerTurn) return false;
+
+            if (!computer.isBust() && computer.shouldHit()) {
+                listener.event(GameEvent.Type.DEALER_HIT, GameEvent.SEAT_DEALER, -1);
+                ensureCardsAvailable(1);
+                dealToDealer();
+                listener.changed();
+                return true;
+            }
+            settle(false);
+            return false;
+        } finally {
+            StageProfiler.exit(Stage.DEALER);
+        }
+    }
+
+    /**
+     * Scores every hand against the dealer: a hand is worth its bet in
+     * points (2 once doubled). Insurance is settled by TableRules.
+     */
+    private void settle(boolean dealerBlackjack) {
+        StageProfiler.enter(Stage.SETTLE);
+        try {
+            int d = computer.bestTotal();
+            StringBuilder summary = new StringBuilder();
+
+            for (int h = 0; h < hands.handCount(); h++) {
+                int p = hands.total(h);
+                byte outcome;
+                String text;
+                if (dealerBlackjack) {
+                    outcome = hands.isNatural(h) ? RoundHistory.PUSH : RoundHistory.LOSS;
+                    text = outcome == RoundHistory.PUSH ? "Both have Blackjack: push."
+                            : "Dealer has Blackjack! Dealer wins the round.";
+                } else if (hands.isBust(h)) {
+                    outcome = RoundHistory.LOSS;
+                    text = human.name() + " BUST! Dealer wins the round.";
+                } else if (computer.isBust()) {
+                    outcome = RoundHistory.WIN;
+                    text = "Dealer BUST! " + human.name() + " wins the round.";
+                } else if (p > d) {
+                    outcome = RoundHistory.WIN;
+                    text = human.name() + " wins the round (" + p + " vs " + d + ").";
+                } else if (d > p) {
+                    outcome = RoundHistory.LOSS;
+                    text = "Dealer wins the round (" + d + " vs " + p + ").";
+                } else {
+                    outcome = RoundHistory.PUSH;
+                    text = "Draw (push) (" + p + " vs " + d + ").";
+                }
+
+                int bet = hands.bet(h);
+                if (outcome == RoundHistory.WIN) human.addGameScore(bet);
+                else if (outcome == RoundHistory.LOSS) computer.addGameScore(bet);
+                listener.handSettled(h, outcome);
+
+                if (hands.handCount() > 1) {
+                    if (h > 0) summary.append(' ');
+                    summary.append("Hand ").append(h + 1).append(": ");
+                }
+                summary.append(text);
+                if (bet > 1) summary.append(" (x").append(bet).append(")");
+            }
+
+            if (insuranceTaken) {
+                int insurance = TableRules.insuranceResult(dealerBlackjack);
+                if (insurance > 0) {
+                    human.addGameScore(insurance);
+                    summary.append(" Insurance pays ").append(insurance).append('.');
+                } else {
+                    computer.addGameScore(-insurance);
+                    summary.append(" Insurance lost.");
+                }
+            }
+
+            lastRoundSummary = summary.toString();
+
+            StageProfiler.roundFinished();
+            roundOver = true;
+            playerTurn = false;
+            hideDealerFirstCard = false;
+            insuranceOffered = false;
+            listener.changed();
+            listener.roundSettled();
+        } finally {
+            StageProfiler.exit(Stage.SETTLE);
+        }
+    }
+
+    /* ================= STATE ================= */
+
+    Deck deck()                   { return deck; }
+    HumanPlayer human()           { return human; }
+    ComputerPlayer computer()     { return computer; }
+    HandArena hands()             { return hands; }
+    TableRules rules()            { return rules; }
+    int roundNumber()             { return roundNumber; }
+    int activeHand()              { return activeHand; }
+    int playerStartTotal()        { return playerStartTotal; }
+    boolean insuranceOffered()    { return insuranceOffered; }
+    boolean roundOver()           { return roundOver; }
+    String lastRoundSummary()     { return lastRoundSummary; }
+
+    boolean canPlayerAct() {
+        return playerTurn && !roundOver;
+    }
+
+    int dealerUpcard() {
+        return computer.getCards().get(0).baseValue();
+    }
+
+    String playerHandText() {
+        StringBuilder sb = new StringBuilder();
+        for (int h = 0; h < hands.handCount(); h++) {
+            if (h > 0) sb.append("\n\n");
+            if (hands.handCount() > 1) sb.append("Hand ").append(h + 1).append(":\n");
+            for (int i = 0; i < hands.cardCount(h); i++) sb.append(Card.fromCode(hands.code(h, i))).append("\n");
+            sb.append("\nTotal: ").append(hands.total(h));
+            if (hands.bet(h) > 1) sb.append(" (x").append(hands.bet(h)).append(")");
+        }
+        return sb.toString();
+    }
+
+    String dealerHandText() {
+        return computer.handText(hideDealerFirstCard) + "\n\nTotal: "
+                + (hideDealerFirstCard ? "?" : computer.bestTotal());
+    }
+
+    TableSnapshot snapshot() {
+        List<Integer> bets = new ArrayList<>(hands.handCount());
+        for (int h = 0; h < hands.handCount(); h++) bets.add(hands.bet(h));
+
+        int options = 0;
+        if (canPlayerAct()) {
+            if (insuranceOffered) options |= TableSnapshot.INSURANCE;
+            if (rules.canDouble(hands, activeHand)) options |= TableSnapshot.DOUBLE;
+            if (rules.canSplit(hands, activeHand)) options |= TableSnapshot.SPLIT;
+        }
+
+        return new TableSnapshot(
+                roundNumber, GameController.MAX_ROUNDS, deck.remaining(),
+                human.name(), human.gameScore(), computer.gameScore(),
+                playerTurn, roundOver, lastRoundSummary,
+                playerHandImagePaths(), bets, activeHand,
+                dealerCardImagePaths(), options, false
+        );
+    }
+
+    private List<List<String>> playerHandImagePaths() {
+        if (playerPaths == null) {
+            List<List<String>> all = new ArrayList<>(hands.handCount());
+            for (int h = 0; h < hands.handCount(); h++) {
+                List<String> paths = new ArrayList<>(hands.cardCount(h));
+                for (int i = 0; i < hands.cardCount(h); i++) {
+                    paths.add(Card.fromCode(hands.code(h, i)).resolvedImagePath());
+                }
+                all.add(List.copyOf(paths));
+            }
+            playerPaths = List.copyOf(all);
+        }
+        return playerPaths;
+    }
+
+    private List<String> dealerCardImagePaths() {
+        boolean hidden = canPlayerAct();
+        if (dealerPaths != null && dealerPathsHidden == hidden) return dealerPaths;
+
+        List<String> paths = new ArrayList<>();
+        List<Card> cards = computer.getCards();
+        for (int i = 0; i < cards.size(); i++) {
+            // While the player is still playing the dealer's second card stays face down
+            paths.add(i == 1 && hidden ? CARD_BACK : cards.get(i).resolvedImagePath());
+        }
+
+        dealerPaths = List.copyOf(paths);
+        dealerPathsHidden = hidden;
+        return dealerPaths;
+    }
+}
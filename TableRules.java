@@ -0,0 +1,91 @@
+package model;
+
+/**
+ * Which player options a table offers, and how its dealer plays.
+ *
+ * HIT_STAND is the original simplified game and what the simulations have
+ * always played. STANDARD adds doubling on any two cards (also after a
+ * split), splitting pairs up to HandArena.MAX_HANDS hands (split Aces take
+ * one card each) and insurance when the dealer shows an Ace; the dealer
+ * peeks for blackjack with an Ace or ten up, so doubles and splits are only
+ * ever made against a dealer without one.
+ *
+ * Insurance stakes one opening bet and pays 2:1 when the dealer has
+ * blackjack (see insuranceResult). That is the interactive table's whole-point
+ * rule, and the simulators and the bankroll settle it the same way, so a
+ * simulation of the current rules plays the game the user plays.
+ */
+public final class TableRules {
+
+    public static final TableRules HIT_STAND = new TableRules(false, false, false, 1, false, false);
+    public static final TableRules STANDARD = new TableRules(false, true, true, HandArena.MAX_HANDS, true, true);
+
+    private final boolean dealerHitsSoft17;
+    private final boolean doubleAllowed;
+    private final boolean doubleAfterSplit;
+    private final int maxHands;
+    private final boolean dealerPeeks;
+    private final boolean insurance;
+
+    public TableRules(boolean dealerHitsSoft17, boolean doubleAllowed, boolean doubleAfterSplit,
+                      int maxHands, boolean dealerPeeks, boolean insurance) {
+        if (maxHands < 1 || maxHands > HandArena.MAX_HANDS) {
+            throw new IllegalArgumentException("Hands must be in 1.." + HandArena.MAX_HANDS);
+        }
+        if (insurance && !dealerPeeks) throw new IllegalArgumentException("Insurance needs a dealer peek");
+
+        this.dealerHitsSoft17 = dealerHitsSoft17;
+        this.doubleAllowed = doubleAllowed;
+        this.doubleAfterSplit = doubleAllowed && doubleAfterSplit;
+        this.maxHands = maxHands;
+        this.dealerPeeks = dealerPeeks;
+        this.insurance = insurance;
+    }
+
+    public TableRules withDealerHitsSoft17(boolean hitsSoft17) {
+        if (hitsSoft17 == dealerHitsSoft17) return this;
+        return new TableRules(hitsSoft17, doubleAllowed, doubleAfterSplit, maxHands, dealerPeeks, insurance);
+    }
+
+    public boolean dealerHitsSoft17() { return dealerHitsSoft17; }
+    public boolean doubleAllowed()    { return doubleAllowed; }
+    public boolean doubleAfterSplit() { return doubleAfterSplit; }
+    public int maxHands()             { return maxHands; }
+    public boolean splitAllowed()     { return maxHands > 1; }
+    public boolean dealerPeeks()      { return dealerPeeks; }
+    public boolean insurance()        { return insurance; }
+
+    // Insurance won (+2) or lost (-1), in opening bets
+    public static int insuranceResult(boolean dealerBlackjack) {
+        return dealerBlackjack ? 2 : -1;
+    }
+
+    // The dealer checks the hole card when showing an Ace or a ten (upcard by value)
+    public boolean peeksWith(int upcard) {
+        return dealerPeeks && (upcard == 1 || upcard == 10);
+    }
+
+    // Doubling is offered on two-card hands; split Aces are finished after their one card
+    public boolean canDouble(HandArena hands, int hand) {
+        if (!doubleAllowed || hands.cardCount(hand) != 2 || hands.isDoubled(hand)) return false;
+        return !hands.isSplit(hand) || (doubleAfterSplit && !isSplitAces(hands, hand));
+    }
+
+    public boolean canSplit(HandArena hands, int hand) {
+        return hands.handCount() < maxHands && hands.isPair(hand) && !isSplitAces(hands, hand);
+    }
+
+    // Split Aces get exactly one card each and cannot be split again
+    public boolean isSplitAces(HandArena hands, int hand) {
+        return hands.isSplit(hand) && HandArena.value(hands.code(hand, 0)) == 1;
+    }
+
+    @Override
+    public String toString() {
+        return (dealerHitsSoft17 ? "h17" : "s17")
+                + (doubleAllowed ? (doubleAfterSplit ? " double/das" : " double") : "")
+                + (maxHands > 1 ? " split" + maxHands : "")
+                + (dealerPeeks ? " peek" : "")
+                + (insurance ? " insurance" : "");
+    }
+}
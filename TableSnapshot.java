@@ -0,0 +1,134 @@
+package controller;
+
+import java.util.List;
+
+/**
+ * Immutable picture of the table after one state transition.
+ *
+ * GameController builds one per transition and publishes it; the UI (and
+ * anything else watching the game) only reads from it. All texts are built
+ * once here instead of on every repaint. Card lists are immutable and are
+ * shared with the previous snapshot when that hand did not change, so
+ * readers can compare them by identity to skip work. After a split the
+ * player has several hands; the one being played is activeHand().
+ */
+public final class TableSnapshot {
+
+    // Extra actions open to the player right now (bits of options())
+    public static final int DOUBLE = 1;
+    public static final int SPLIT = 2;
+    public static final int INSURANCE = 4;
+
+    private final int roundNumber;
+    private final int maxRounds;
+    private final int remainingCards;
+
+    private final String playerName;
+    private final int playerScore;
+    private final int dealerScore;
+
+    private final boolean playerTurn;
+    private final boolean roundOver;
+    private final String lastRoundSummary;
+
+    private final List<List<String>> playerHands;
+    private final List<Integer> handBets;
+    private final int activeHand;
+    private final List<String> dealerCards;
+    private final int options;
+
+    private final String topStatusText;
+    private final String scoreText;
+    private final String turnText;
+
+    // Rebuilt from a recording: shown like the live table, but nobody can act
+    private final boolean replay;
+
+    public TableSnapshot(int roundNumber, int maxRounds, int remainingCards,
+                         String playerName, int playerScore, int dealerScore,
+                         boolean playerTurn, boolean roundOver, String lastRoundSummary,
+                         List<String> playerCards, List<String> dealerCards) {
+        this(roundNumber, maxRounds, remainingCards, playerName, playerScore, dealerScore,
+                playerTurn, roundOver, lastRoundSummary, playerCards, dealerCards, false);
+    }
+
+    public TableSnapshot(int roundNumber, int maxRounds, int remainingCards,
+                         String playerName, int playerScore, int dealerScore,
+                         boolean playerTurn, boolean roundOver, String lastRoundSummary,
+                         List<String> playerCards, List<String> dealerCards, boolean replay) {
+        this(roundNumber, maxRounds, remainingCards, playerName, playerScore, dealerScore,
+                playerTurn, roundOver, lastRoundSummary, List.of(playerCards), List.of(1), 0,
+                dealerCards, 0, replay);
+    }
+
+    public TableSnapshot(int roundNumber, int maxRounds, int remainingCards,
+                         String playerName, int playerScore, int dealerScore,
+                         boolean playerTurn, boolean roundOver, String lastRoundSummary,
+                         List<List<String>> playerHands, List<Integer> handBets, int activeHand,
+                         List<String> dealerCards, int options, boolean replay) {
+        if (playerHands.isEmpty() || handBets.size() != playerHands.size()) {
+            throw new IllegalArgumentException("Every hand needs a bet");
+        }
+        this.roundNumber = roundNumber;
+        this.maxRounds = maxRounds;
+        this.remainingCards = remainingCards;
+        this.playerName = playerName;
+        this.playerScore = playerScore;
+        this.dealerScore = dealerScore;
+        this.playerTurn = playerTurn;
+        this.roundOver = roundOver;
+        this.lastRoundSummary = lastRoundSummary == null ? "" : lastRoundSummary;
+        this.playerHands = playerHands.stream().map(List::copyOf).toList();
+        this.handBets = List.copyOf(handBets);
+        this.activeHand = activeHand;
+        this.dealerCards = List.copyOf(dealerCards);
+        this.options = options;
+
+        this.topStatusText = "Round " + roundNumber + "/" + maxRounds
+                + "   Remaining cards: " + remainingCards;
+        this.scoreText = playerName + ": " + playerScore
+                + "    Dealer: " + dealerScore;
+        String turn;
+        if (roundOver) turn = "Round finished";
+        else if (!playerTurn) turn = "Dealer turn";
+        else if ((options & INSURANCE) != 0) turn = "Your turn - insurance?";
+        else if (playerHands.size() > 1) turn = "Your turn - hand " + (activeHand + 1) + " of " + playerHands.size();
+        else turn = "Your turn";
+        this.turnText = replay ? "Replay - " + turn : turn;
+        this.replay = replay;
+    }
+
+    public int roundNumber()        { return roundNumber; }
+    public int maxRounds()          { return maxRounds; }
+    public int remainingCards()     { return remainingCards; }
+    public String playerName()      { return playerName; }
+    public int playerScore()        { return playerScore; }
+    public int dealerScore()        { return dealerScore; }
+    public boolean playerTurn()     { return playerTurn; }
+    public boolean roundOver()      { return roundOver; }
+    public String lastRoundSummary() { return lastRoundSummary; }
+
+    // Image resource paths, dealer hole card already replaced by the card back
+    public List<List<String>> playerHands() { return playerHands; }
+    public List<String> playerCards() { return playerHands.get(0); }
+    public List<String> dealerCards() { return dealerCards; }
+
+    // Bet of each hand in units of the opening bet (2 once doubled)
+    public List<Integer> handBets()   { return handBets; }
+    public int activeHand()           { return activeHand; }
+    public int options()              { return options; }
+
+    public String topStatusText()   { return topStatusText; }
+    public String scoreText()       { return scoreText; }
+    public String turnText()        { return turnText; }
+
+    public boolean replay()         { return replay; }
+
+    public boolean canPlayerAct() {
+        return playerTurn && !roundOver && !replay;
+    }
+
+    public boolean canDouble()    { return canPlayerAct() && (options & DOUBLE) != 0; }
+    public boolean canSplit()     { return canPlayerAct() && (options & SPLIT) != 0; }
+    public boolean canInsure()    { return canPlayerAct() && (options & INSURANCE) != 0; }
+}
@@ -0,0 +1,110 @@
+package sim;
+
+import java.util.SplittableRandom;
+
+/**
+ * Compact table state for search: unseen cards by value plus both hands.
+ *
+ * The shoe is kept as a composition (how many cards of each value are left)
+ * rather than an ordered list, because a player cannot know the order
+ * anyway. That makes the whole state a dozen ints, so fork() is a
+ * constant-size copy no matter how many decks are in the shoe.
+ */
+public final class TableState {
+
+    // counts[v] = unseen cards of value v (1 = Ace .. 10 = ten-valued)
+    private final int[] counts = new int[11];
+    private int unseen;
+
+    private int playerHard;
+    private int playerAces;
+    private int dealerHard;
+    private int dealerAces;
+    private int dealerUpcard;
+
+    private TableState() {
+    }
+
+    /**
+     * unseenCounts must include the dealer's hole card, since the player
+     * cannot see it; only the upcard is dealt to the dealer here.
+     */
+    public static TableState of(int[] unseenCounts, int playerHard, int playerAces, int dealerUpcard) {
+        if (unseenCounts == null || unseenCounts.length < 11) {
+            throw new IllegalArgumentException("Counts must be indexed by value 1..10");
+        }
+        TableState s = new TableState();
+        for (int v = 1; v <= 10; v++) {
+            s.counts[v] = unseenCounts[v];
+            s.unseen += unseenCounts[v];
+        }
+        s.playerHard = playerHard;
+        s.playerAces = playerAces;
+        s.dealerUpcard = dealerUpcard;
+        s.dealerHard = dealerUpcard;
+        s.dealerAces = dealerUpcard == 1 ? 1 : 0;
+        return s;
+    }
+
+    // Independent copy; O(1) because the state has a fixed size
+    public TableState fork() {
+        TableState s = new TableState();
+        copyInto(s);
+        return s;
+    }
+
+    // Overwrites target with this state (lets rollouts reuse one scratch object)
+    public void copyInto(TableState target) {
+        System.arraycopy(counts, 0, target.counts, 0, counts.length);
+        target.unseen = unseen;
+        target.playerHard = playerHard;
+        target.playerAces = playerAces;
+        target.dealerHard = dealerHard;
+        target.dealerAces = dealerAces;
+        target.dealerUpcard = dealerUpcard;
+    }
+
+    // Removes a random unseen card, weighted by what is left, and returns its value
+    public int drawValue(SplittableRandom rng) {
+        if (unseen == 0) throw new IllegalStateException("Deck is empty");
+        int r = rng.nextInt(unseen);
+        int v = 1;
+        while (r >= counts[v]) {
+            r -= counts[v];
+            v++;
+        }
+        counts[v]--;
+        unseen--;
+        return v;
+    }
+
+    public void playerHit(SplittableRandom rng) {
+        int v = drawValue(rng);
+        playerHard += v;
+        if (v == 1) playerAces++;
+    }
+
+    /**
+     * Finishes the round after the player stands: draws the hole card, lets
+     * the dealer hit below 17 and returns +1 / 0 / -1 for the player.
+     */
+    public int settleAfterStand(SplittableRandom rng) {
+        do {
+            int v = drawValue(rng);
+            dealerHard += v;
+            if (v == 1) dealerAces++;
+        } while (dealerHard <= 21 && RoundSimulator.bestTotal(dealerHard, dealerAces) < 17);
+
+        if (dealerHard > 21) return 1;
+        int p = playerBest();
+        int d = RoundSimulator.bestTotal(dealerHard, dealerAces);
+        return Integer.compare(p, d);
+    }
+
+    public int playerHard()   { return playerHard; }
+    public int playerAces()   { return playerAces; }
+    public int playerBest()   { return RoundSimulator.bestTotal(playerHard, playerAces); }
+    public boolean playerBust() { return playerHard > 21; }
+    public int dealerUpcard() { return dealerUpcard; }
+    public int unseen()       { return unseen; }
+}
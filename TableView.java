@@ -0,0 +1,332 @@
+package ui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+import controller.StageProfiler;
+import controller.StageProfiler.Stage;
+
+/**
+ * Both hands painted by one component.
+ *
+ * Replaces a JLabel/ImageIcon per card: card images are decoded once, scaled
+ * to the screen's pixel density and cached as BufferedImages, then drawn
+ * straight from paintComponent. When a hand changes only the rectangles of
+ * the cards that changed are repainted (a new card, the hole card turning
+ * over), and newly dealt cards slide in from the shoe with a short animation.
+ * Split hands are shown side by side as fanned columns, the hand being
+ * played outlined.
+ */
+public class TableView extends JComponent {
+
+    // Logical card size; images are pre-scaled to this times the screen scale
+    private static final int CARD_W = 80;
+    private static final int CARD_H = 116;
+    private static final int GAP = 8;
+    private static final int TITLE_H = 24;
+    private static final int PAD = 10;
+    private static final int LABEL_H = 18;
+    private static final int FAN = 24;        // vertical step between the cards of a split hand
+
+    // Hand id of the dealer; the player's hands are 0..n-1
+    private static final int DEALER = -1;
+
+    private static final int DEAL_MS = 180;
+    private static final int FRAME_MS = 16;   // ~60 fps
+
+    private static final Color TABLE = new Color(0x1E, 0x6B, 0x3A);
+    private static final Color FRAME = new Color(255, 255, 255, 90);
+    private static final Color ACTIVE = new Color(0xFF, 0xD7, 0x00);
+
+    private List<List<String>> playerHands = List.of(List.of());
+    private List<Integer> handBets = List.of(1);
+    private int activeHand = -1;
+    private List<String> dealerCards = List.of();
+
+    // Deal animations in flight: hand (player hand index or DEALER), index, start time
+    private final List<long[]> dealing = new ArrayList<>();
+    private final Timer animator = new Timer(FRAME_MS, e -> animate());
+
+    private final Map<String, BufferedImage> cache = new HashMap<>();
+    private double cachedScale = 1.0;
+
+    public TableView() {
+        setOpaque(true);
+        setDoubleBuffered(true);
+        setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+        setPreferredSize(new Dimension(2 * (PAD + 5 * (CARD_W + GAP)), TITLE_H + 2 * (CARD_H + GAP) + 2 * PAD));
+        animator.setCoalesce(true);
+    }
+
+    /**
+     * Shows new hands. Only cards whose image changed (or that are new or
+     * gone) are repainted; new cards are animated in.
+     */
+    public void setHands(List<String> player, List<String> dealer) {
+        setHands(List.of(player == null ? List.of() : player), List.of(1), -1, dealer);
+    }
+
+    /**
+     * Same, for a player with one or more hands. activeHand is outlined
+     * while the player has several hands (-1 for none); bets above 1 are
+     * marked on the hand.
+     */
+    public void setHands(List<List<String>> player, List<Integer> bets, int activeHand, List<String> dealer) {
+        List<List<String>> oldHands = playerHands;
+        List<String> oldDealer = dealerCards;
+        playerHands = (player == null || player.isEmpty()) ? List.of(List.of()) : player;
+        dealerCards = dealer == null ? List.of() : dealer;
+
+        if (oldHands.size() != playerHands.size()) {
+            // A split or a new round rearranges the player's side
+            dealing.removeIf(a -> a[0] != DEALER);
+            repaint(halfBounds(0));
+        } else {
+            for (int h = 0; h < playerHands.size(); h++) handChanged(h, oldHands.get(h), playerHands.get(h));
+        }
+        // Labels and the active hand's outline sit outside the card rectangles
+        if (playerHands.size() > 1 || activeHand != this.activeHand || !bets.equals(handBets)) {
+            repaint(halfBounds(0));
+        }
+        handBets = List.copyOf(bets);
+        this.activeHand = activeHand;
+
+        handChanged(DEALER, oldDealer, dealerCards);
+    }
+
+    private void handChanged(int hand, List<String> before, List<String> after) {
+        // A shorter hand means a new round: drop its animations and repaint the whole half
+        if (after.size() < before.size()) {
+            dealing.removeIf(a -> a[0] == hand);
+            repaint(halfBounds(hand));
+            return;
+        }
+
+        for (int i = 0; i < after.size(); i++) {
+            if (i >= before.size()) {
+                dealing.add(new long[] {hand, i, System.nanoTime()});
+                repaint(dealPath(hand, i));
+            } else if (!after.get(i).equals(before.get(i))) {
+                repaint(cardBounds(hand, i));
+            }
+        }
+        if (!dealing.isEmpty() && !animator.isRunning()) animator.start();
+    }
+
+    private void animate() {
+        long now = System.nanoTime();
+        for (int k = dealing.size() - 1; k >= 0; k--) {
+            long[] a = dealing.get(k);
+            repaint(dealPath((int) a[0], (int) a[1]));
+            if (now - a[2] >= DEAL_MS * 1_000_000L) dealing.remove(k);
+        }
+        if (dealing.isEmpty()) animator.stop();
+    }
+
+    // -------- Geometry --------
+
+    // Left half for the player's hands, right half for the dealer
+    private Rectangle halfBounds(int hand) {
+        int w = getWidth() / 2;
+        return new Rectangle(hand == DEALER ? w : 0, 0, w, getHeight());
+    }
+
+    private Rectangle cardBounds(int hand, int index) {
+        Rectangle half = halfBounds(hand);
+        if (hand != DEALER && playerHands.size() > 1) {
+            return new Rectangle(columnX(hand), TITLE_H + PAD + LABEL_H + index * FAN, CARD_W, CARD_H);
+        }
+        int perRow = Math.max(1, (half.width - 2 * PAD + GAP) / (CARD_W + GAP));
+        int x = half.x + PAD + (index % perRow) * (CARD_W + GAP);
+        int y = TITLE_H + PAD + (index / perRow) * (CARD_H + GAP);
+        return new Rectangle(x, y, CARD_W, CARD_H);
+    }
+
+    // Left edge of a split hand's column
+    private int columnX(int hand) {
+        Rectangle half = halfBounds(0);
+        return half.x + PAD + hand * ((half.width - 2 * PAD) / playerHands.size());
+    }
+
+    // Cards are dealt from the shoe at the top centre of the table
+    private Rectangle shoeBounds() {
+        return new Rectangle(getWidth() / 2 - CARD_W / 2, -CARD_H / 2, CARD_W, CARD_H);
+    }
+
+    // Everything a dealt card covers on its way in
+    private Rectangle dealPath(int hand, int index) {
+        return cardBounds(hand, index).union(shoeBounds());
+    }
+
+    // Where a card is drawn right now (slides from the shoe while dealing)
+    private Rectangle currentBounds(int hand, int index, long now) {
+        Rectangle target = cardBounds(hand, index);
+        for (long[] a : dealing) {
+            if (a[0] != hand || a[1] != index) continue;
+            double t = Math.min(1.0, (now - a[2]) / (DEAL_MS * 1_000_000.0));
+            t = 1 - (1 - t) * (1 - t);   // ease out
+            Rectangle from = shoeBounds();
+            target.x = (int) Math.round(from.x + (target.x - from.x) * t);
+            target.y = (int) Math.round(from.y + (target.y - from.y) * t);
+        }
+        return target;
+    }
+
+    // -------- Painting --------
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        StageProfiler.enter(Stage.RENDER);
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            double scale = g2.getTransform().getScaleX();
+            if (scale != cachedScale) {
+                cache.clear();
+                cachedScale = scale;
+            }
+
+            Rectangle clip = g2.getClipBounds();
+            if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+            g2.setColor(TABLE);
+            g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+            paintPlayer(g2, clip);
+            paintTitle(g2, DEALER, "DEALER");
+            paintCards(g2, DEALER, dealerCards, clip);
+        } finally {
+            g2.dispose();
+            StageProfiler.exit(Stage.RENDER);
+        }
+    }
+
+    private void paintPlayer(Graphics2D g2, Rectangle clip) {
+        if (playerHands.size() == 1) {
+            paintTitle(g2, 0, handBets.get(0) > 1 ? "PLAYER  x" + handBets.get(0) : "PLAYER");
+            paintCards(g2, 0, playerHands.get(0), clip);
+            return;
+        }
+
+        paintTitle(g2, 0, "PLAYER");
+        g2.setFont(getFont().deriveFont(Font.PLAIN, 12f));
+        int colW = (halfBounds(0).width - 2 * PAD) / playerHands.size();
+        for (int h = 0; h < playerHands.size(); h++) {
+            int x = columnX(h);
+            g2.setColor(h == activeHand ? ACTIVE : Color.WHITE);
+            String label = "Hand " + (h + 1) + (handBets.get(h) > 1 ? "  x" + handBets.get(h) : "");
+            g2.drawString(label, x, TITLE_H + PAD + 12);
+            if (h == activeHand) {
+                int cards = Math.max(1, playerHands.get(h).size());
+                g2.drawRoundRect(x - 4, TITLE_H + PAD - 2, Math.min(colW, CARD_W + 8) - 1,
+                        LABEL_H + (cards - 1) * FAN + CARD_H + 6, 10, 10);
+            }
+            paintCards(g2, h, playerHands.get(h), clip);
+        }
+    }
+
+    private void paintTitle(Graphics2D g2, int hand, String title) {
+        Rectangle half = halfBounds(hand);
+        g2.setColor(FRAME);
+        g2.drawRoundRect(half.x + 2, 2, half.width - 5, getHeight() - 5, 12, 12);
+        g2.setColor(Color.WHITE);
+        g2.setFont(getFont().deriveFont(Font.BOLD, 13f));
+        g2.drawString(title, half.x + PAD, TITLE_H - 4);
+    }
+
+    private void paintCards(Graphics2D g2, int hand, List<String> cards, Rectangle clip) {
+        // No early exit on the half's bounds: a card being dealt can cross into the other half
+        if (cards.isEmpty()) {
+            if (hand == DEALER || playerHands.size() == 1) {
+                g2.setColor(Color.WHITE);
+                g2.setFont(getFont().deriveFont(Font.PLAIN, 12f));
+                g2.drawString("(no cards)", halfBounds(hand).x + PAD, TITLE_H + PAD + 14);
+            }
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (int i = 0; i < cards.size(); i++) {
+            Rectangle r = currentBounds(hand, i, now);
+            if (!r.intersects(clip)) continue;
+            g2.drawImage(image(cards.get(i)), r.x, r.y, CARD_W, CARD_H, null);
+        }
+    }
+
+    // Card image at device resolution, decoded and scaled once per path
+    private BufferedImage image(String path) {
+        BufferedImage img = cache.get(path);
+        if (img != null) return img;
+
+        int w = (int) Math.ceil(CARD_W * cachedScale);
+        int h = (int) Math.ceil(CARD_H * cachedScale);
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        img = gc != null
+                ? gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT)
+                : new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D g = img.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            BufferedImage src = load(path);
+            if (src != null) {
+                g.drawImage(src, 0, 0, w, h, null);
+            } else {
+                paintPlaceholder(g, path, w, h);
+            }
+        } finally {
+            g.dispose();
+        }
+
+        cache.put(path, img);
+        return img;
+    }
+
+    private BufferedImage load(String path) {
+        if (path == null || path.trim().isEmpty()) return null;
+        java.net.URL url = getClass().getResource(path);
+        if (url == null) return null;
+        try {
+            return ImageIO.read(url);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // Used when the card image resource is missing: a plain card with its file name
+    private void paintPlaceholder(Graphics2D g, String path, int w, int h) {
+        g.transform(AffineTransform.getScaleInstance(cachedScale, cachedScale));
+        boolean back = path != null && path.endsWith("back.jpg");
+
+        g.setColor(back ? new Color(0x8B, 0x1A, 0x1A) : Color.WHITE);
+        g.fillRoundRect(0, 0, CARD_W - 1, CARD_H - 1, 10, 10);
+        g.setColor(Color.DARK_GRAY);
+        g.drawRoundRect(0, 0, CARD_W - 1, CARD_H - 1, 10, 10);
+        if (back || path == null) return;
+
+        String name = path.substring(path.lastIndexOf('/') + 1).replace(".jpg", "");
+        g.setFont(getFont().deriveFont(Font.BOLD, 18f));
+        FontMetrics fm = g.getFontMetrics();
+        g.drawString(name, (CARD_W - fm.stringWidth(name)) / 2, CARD_H / 2 + fm.getAscent() / 2);
+    }
+}
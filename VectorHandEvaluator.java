@@ -0,0 +1,79 @@
+package sim;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * HandEvaluator built on jdk.incubator.vector.
+ *
+ * Every lane follows the same branch-free recipe as the scalar evaluator:
+ * best = hard + 10 when the hand holds an Ace and that stays <= 21, and the
+ * outcome is built by blending from the weakest rule to the strongest.
+ * Loaded reflectively by HandEvaluator.fastest() so the rest of the code
+ * does not depend on the incubator module.
+ */
+final class VectorHandEvaluator implements HandEvaluator {
+
+    private static final VectorSpecies<Integer> S = IntVector.SPECIES_PREFERRED;
+
+    private static final IntVector TEN = IntVector.broadcast(S, 10);
+    private static final IntVector WIN = IntVector.broadcast(S, RoundHistory.WIN);
+    private static final IntVector LOSS = IntVector.broadcast(S, RoundHistory.LOSS);
+    private static final IntVector PUSH = IntVector.broadcast(S, RoundHistory.PUSH);
+
+    @Override
+    public void evaluate(HandBatch b) {
+        int n = b.size();
+        int upper = S.loopBound(n);
+
+        int i = 0;
+        for (; i < upper; i += S.length()) {
+            lanes(b, i, S.maskAll(true));
+        }
+
+        // Tail: same kernel under a partial mask
+        if (i < n) {
+            lanes(b, i, S.indexInRange(i, n));
+        }
+    }
+
+    private static void lanes(HandBatch b, int i, VectorMask<Integer> m) {
+        IntVector pHard = IntVector.fromArray(S, b.playerHard, i, m);
+        IntVector pAces = IntVector.fromArray(S, b.playerAces, i, m);
+        IntVector dHard = IntVector.fromArray(S, b.dealerHard, i, m);
+        IntVector dAces = IntVector.fromArray(S, b.dealerAces, i, m);
+
+        IntVector p = best(pHard, pAces);
+        IntVector d = best(dHard, dAces);
+
+        VectorMask<Integer> pBust = pHard.compare(VectorOperators.GT, 21);
+        VectorMask<Integer> dBust = dHard.compare(VectorOperators.GT, 21);
+
+        IntVector o = PUSH
+                .blend(WIN, p.compare(VectorOperators.GT, d))
+                .blend(LOSS, d.compare(VectorOperators.GT, p))
+                .blend(WIN, dBust)
+                .blend(LOSS, pBust);
+
+        p.intoArray(b.playerBest, i, m);
+        d.intoArray(b.dealerBest, i, m);
+        o.intoArray(b.outcome, i, m);
+
+        // Mask stores have no partial form, so write the tail flags lane by lane
+        if (m.allTrue()) {
+            pBust.intoArray(b.playerBust, i);
+        } else {
+            for (int j = 0; j < m.trueCount(); j++) b.playerBust[i + j] = pBust.laneIsSet(j);
+        }
+    }
+
+    // hard + 10 where (aces > 0 && hard + 10 <= 21), else hard
+    private static IntVector best(IntVector hard, IntVector aces) {
+        IntVector soft = hard.add(TEN);
+        VectorMask<Integer> useSoft = aces.compare(VectorOperators.GT, 0)
+                .and(soft.compare(VectorOperators.LE, 21));
+        return hard.blend(soft, useSoft);
+    }
+}